@@ -0,0 +1,215 @@
+import java.util.Properties;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Point d'entrée des mesures de performance (module `benchmarks`) vers le cœur de la simulation.
+ *
+ * Les classes de la simulation sont dans le paquetage par défaut, que JMH ne sait pas utiliser :
+ * cette classe, compilée avec elles, prépare chaque situation mesurée et la retourne sous forme
+ * d'une fonction standard (`Runnable`, `IntSupplier`...), que les mesures du paquetage `bancs`
+ * récupèrent par réflexion une seule fois, avant de mesurer.
+ *
+ * Chaque préparation crée une simulation neuve à partir d'une graine, pour que les mesures
+ * puissent être comparées d'une version à l'autre.
+ */
+public class Bancs {
+
+    /** Nombre de ticks effectués avant de mesurer, pour partir d'une colonie déjà active */
+    static final int TICKS_PREPARATION = 200;
+
+    /** Nombre maximal de ticks d'une exécution complète (certaines colonies n'atteignent jamais l'objectif) */
+    static final long TICKS_EXECUTION = 20_000;
+
+    /**
+     * Crée une simulation neuve pour une colonie d'une taille donnée, le plateau et le pollen
+     * étant dimensionnés en fonction du nombre d'abeilles.
+     *
+     * @param graine   La graine de la simulation.
+     * @param abeilles Le nombre d'éclaireuses et d'observatrices.
+     * @return La nouvelle simulation, sans aucun message sur la sortie standard.
+     */
+    static Simulation colonie(long graine, int abeilles) {
+        int sources = Math.max(10, abeilles / 50);
+        int taille = Math.max(25, (int) Math.sqrt(abeilles));
+        return new Simulation(plateau(graine, taille, sources, abeilles * 3 / 5, abeilles - abeilles * 3 / 5));
+    }
+
+    /**
+     * Crée un plateau neuf.
+     *
+     * @param graine        La graine du plateau.
+     * @param taille        La taille du plateau en cases.
+     * @param sources       Le nombre de sources de pollen.
+     * @param eclaireuses   Le nombre d'éclaireuses.
+     * @param observatrices Le nombre d'observatrices.
+     * @return Le nouveau plateau.
+     */
+    static Tableau plateau(long graine, int taille, int sources, int eclaireuses, int observatrices) {
+        Properties props = new Properties();
+        props.setProperty("taille", taille + "");
+        props.setProperty("sources", sources + "");
+        props.setProperty("pollen", sources * 30 + "");
+        props.setProperty("eclaireuses", eclaireuses + "");
+        props.setProperty("observatrices", observatrices + "");
+        props.setProperty("graine", graine + "");
+        return Parametres.depuisProprietes(props).creeTableau();
+    }
+
+    /**
+     * Fait avancer une simulation jusqu'à ce que des employées soient actives.
+     *
+     * @param sim La simulation.
+     */
+    private static void prepare(Simulation sim) {
+        for (int t = 0; t < TICKS_PREPARATION || sim.getMaxEmployees() == sim.getRuche().getNbEclaireuse(); t++) {
+            sim.tick();
+        }
+    }
+
+    /**
+     * Un tick complet (éclaireuses, employées puis observatrices).
+     *
+     * @param graine   La graine de la simulation.
+     * @param abeilles Le nombre d'éclaireuses et d'observatrices.
+     * @return Le tick à mesurer.
+     */
+    public static Runnable tick(long graine, int abeilles) {
+        Simulation sim = colonie(graine, abeilles);
+        prepare(sim);
+        return sim::tick;
+    }
+
+    /**
+     * Une exécution complète, d'une simulation neuve jusqu'à l'objectif de récolte (ou `TICKS_EXECUTION` ticks),
+     * tick par tick ou en mode événementiel (`Evenements`).
+     *
+     * @param graine       La graine de la simulation.
+     * @param abeilles     Le nombre d'éclaireuses et d'observatrices.
+     * @param evenementiel true pour le mode événementiel.
+     * @return L'exécution à mesurer (retourne le nombre de ticks effectués).
+     */
+    public static LongSupplier execution(long graine, int abeilles, boolean evenementiel) {
+        return () -> {
+            Simulation sim = colonie(graine, abeilles);
+            sim.setEvenementiel(evenementiel);
+            sim.execute(TICKS_EXECUTION);
+            return sim.getNbTicks();
+        };
+    }
+
+    /**
+     * La recherche d'une meilleure source autour d'une employée (`checkVoisins`),
+     * appliquée à tour de rôle à chaque employée active.
+     *
+     * @param graine   La graine de la simulation.
+     * @param abeilles Le nombre d'éclaireuses et d'observatrices.
+     * @param rayon    Le rayon du voisinage exploré (en cases).
+     * @return La recherche à mesurer (retourne l'identifiant de l'employée).
+     */
+    public static IntSupplier checkVoisins(long graine, int abeilles, int rayon) {
+        Simulation sim = colonie(graine, abeilles);
+        prepare(sim);
+        Tableau tab = sim.getMap();
+        tab.setRayon(rayon);
+        Essaim essaim = sim.getRuche().getEssaim();
+        int debut = sim.getRuche().getNbEclaireuse(), fin = sim.getMaxEmployees();
+        int[] suivante = {debut};
+        return () -> {
+            int i = suivante[0];
+            suivante[0] = i + 1 == fin ? debut : i + 1;
+            essaim.checkVoisins(i, tab);
+            return i;
+        };
+    }
+
+    /**
+     * La danse d'une abeille (`danse`) pour des sources déjà connues, cas le plus fréquent,
+     * en parcourant toutes les sources du plateau.
+     *
+     * @param graine  La graine du plateau.
+     * @param sources Le nombre de sources de pollen.
+     * @return La danse à mesurer (retourne 1 si la source était nouvelle).
+     */
+    public static IntSupplier danse(long graine, int sources) {
+        Tableau tab = plateau(graine, taille(sources), sources, 30, 20);
+        int[][] cellules = enregistreTout(tab);
+        Essaim essaim = tab.getRuche().getEssaim();
+        int[] suivante = {0};
+        return () -> {
+            int k = suivante[0];
+            suivante[0] = (k + 1) % cellules[0].length;
+            return essaim.danse(cellules[0][k], cellules[1][k]) ? 1 : 0;
+        };
+    }
+
+    /**
+     * Le choix d'une source par une observatrice (`choisiSrc`), toutes les sources étant connues.
+     * L'essai pris sur la source choisie est rendu après chaque choix, pour que les sources ne s'épuisent pas.
+     *
+     * @param graine    La graine du plateau.
+     * @param sources   Le nombre de sources de pollen.
+     * @param selection La règle de choix des observatrices (`glouton` ou `roulette`).
+     * @return Le choix à mesurer (retourne la coordonnée x de la source choisie, ou -1).
+     */
+    public static IntSupplier choisiSrc(long graine, int sources, String selection) {
+        Tableau tab = plateau(graine, taille(sources), sources, 30, 20);
+        tab.setRoulette(selection.equals("roulette"));
+        enregistreTout(tab);
+        Essaim essaim = tab.getRuche().getEssaim();
+        int i = essaim.size() - 1; // Une observatrice
+        return () -> {
+            essaim.aSource[i] = false;
+            essaim.choisiSrc(i, tab);
+            if (!essaim.aSource[i]) {
+                return -1;
+            }
+            Case c = tab.getCase(essaim.xSource[i], essaim.ySource[i]);
+            c.setEssaie(c.GetEssaie() + 1);
+            return essaim.xSource[i];
+        };
+    }
+
+    /**
+     * La construction d'un plateau (placement de la ruche et des sources).
+     *
+     * @param graine  La graine du plateau.
+     * @param taille  La taille du plateau en cases.
+     * @param sources Le nombre de sources de pollen.
+     * @return La construction à mesurer.
+     */
+    public static Supplier<Object> tableau(long graine, int taille, int sources) {
+        return () -> plateau(graine, taille, sources, 30, 20);
+    }
+
+    /**
+     * Taille de plateau utilisée pour un nombre de sources donné (une source pour dix cases environ).
+     */
+    private static int taille(int sources) {
+        return Math.max(25, (int) Math.sqrt(sources * 10.0));
+    }
+
+    /**
+     * Enregistre toutes les sources d'un plateau dans le registre, avec leur quantité comme qualité.
+     *
+     * @param tab Le plateau.
+     * @return Les coordonnées x (ligne 0) et y (ligne 1) des sources.
+     */
+    private static int[][] enregistreTout(Tableau tab) {
+        RegistreSources registre = tab.getRuche().getRegistre();
+        int[][] cellules = new int[2][registre.capacite()];
+        int n = 0;
+        for (int cellule : tab.cellulesSources()) {
+            int x = cellule % tab.getSize(), y = cellule / tab.getSize();
+            int qtt = tab.getQtt(x, y);
+            if (qtt > 0) {
+                registre.setQualite(registre.enregistre(x, y), qtt);
+                cellules[0][n] = x;
+                cellules[1][n] = y;
+                n++;
+            }
+        }
+        return cellules;
+    }
+}
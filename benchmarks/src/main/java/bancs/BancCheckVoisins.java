@@ -0,0 +1,42 @@
+package bancs;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+/**
+ * Mesure de la recherche d'une meilleure source autour d'une employée (`Essaim.checkVoisins`).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BancCheckVoisins {
+
+    /** Graine de la simulation */
+    @Param("42")
+    public long graine;
+
+    /** Nombre d'éclaireuses et d'observatrices */
+    @Param({"1000", "100000"})
+    public int abeilles;
+
+    /** Rayon du voisinage exploré (3 : 7x7 cases, le rayon par défaut) */
+    @Param({"3", "30"})
+    public int rayon;
+
+    private IntSupplier checkVoisins;
+
+    @Setup(Level.Iteration)
+    public void prepare() {
+        checkVoisins = Coeur.prepare("checkVoisins", graine, abeilles, rayon);
+    }
+
+    @Benchmark
+    public int checkVoisins() {
+        return checkVoisins.getAsInt();
+    }
+}
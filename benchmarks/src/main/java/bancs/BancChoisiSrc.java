@@ -0,0 +1,42 @@
+package bancs;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+/**
+ * Mesure du choix d'une source par une observatrice (`Essaim.choisiSrc`), toutes les sources étant connues.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BancChoisiSrc {
+
+    /** Graine du plateau */
+    @Param("42")
+    public long graine;
+
+    /** Nombre de sources de pollen */
+    @Param({"10", "10000"})
+    public int sources;
+
+    /** Règle de choix des observatrices */
+    @Param({"glouton", "roulette"})
+    public String selection;
+
+    private IntSupplier choisiSrc;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        choisiSrc = Coeur.prepare("choisiSrc", graine, sources, selection);
+    }
+
+    @Benchmark
+    public int choisiSrc() {
+        return choisiSrc.getAsInt();
+    }
+}
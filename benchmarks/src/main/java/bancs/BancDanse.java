@@ -0,0 +1,38 @@
+package bancs;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+/**
+ * Mesure de la danse d'une abeille (`Essaim.danse`) pour des sources déjà enregistrées.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BancDanse {
+
+    /** Graine du plateau */
+    @Param("42")
+    public long graine;
+
+    /** Nombre de sources de pollen */
+    @Param({"10", "10000"})
+    public int sources;
+
+    private IntSupplier danse;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        danse = Coeur.prepare("danse", graine, sources);
+    }
+
+    @Benchmark
+    public int danse() {
+        return danse.getAsInt();
+    }
+}
@@ -0,0 +1,43 @@
+package bancs;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Mesure d'une exécution complète sans interface (jusqu'à 85% de récolte), tick par tick
+ * ou avec le moteur à événements. Chaque exécution repart d'une simulation neuve.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BancExecution {
+
+    /** Graine de la simulation */
+    @Param("42")
+    public long graine;
+
+    /** Nombre d'éclaireuses et d'observatrices */
+    @Param({"100", "10000"})
+    public int abeilles;
+
+    /** Mode événementiel */
+    @Param({"false", "true"})
+    public boolean evenementiel;
+
+    private LongSupplier execution;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        execution = Coeur.prepare("execution", graine, abeilles, evenementiel);
+    }
+
+    @Benchmark
+    public long execution() {
+        return execution.getAsLong();
+    }
+}
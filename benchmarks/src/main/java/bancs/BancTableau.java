@@ -0,0 +1,39 @@
+package bancs;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Mesure de la construction d'un plateau (`Tableau`) : placement de la ruche et des sources de pollen.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BancTableau {
+
+    /** Graine du plateau */
+    @Param("42")
+    public long graine;
+
+    /** Taille du plateau en cases et nombre de sources ("taille:sources") */
+    @Param({"25:10", "400:2000", "1000:50000"})
+    public String plateau;
+
+    private Supplier<Object> tableau;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        String[] valeurs = plateau.split(":");
+        tableau = Coeur.prepare("tableau", graine, Integer.parseInt(valeurs[0]), Integer.parseInt(valeurs[1]));
+    }
+
+    @Benchmark
+    public Object tableau() {
+        return tableau.get();
+    }
+}
@@ -0,0 +1,38 @@
+package bancs;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mesure d'un tick complet de la simulation (éclaireuses, employées puis observatrices)
+ * pour plusieurs tailles de colonie. Chaque itération repart d'une simulation neuve.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BancTick {
+
+    /** Graine de la simulation */
+    @Param("42")
+    public long graine;
+
+    /** Nombre d'éclaireuses et d'observatrices */
+    @Param({"100", "10000", "100000"})
+    public int abeilles;
+
+    private Runnable tick;
+
+    @Setup(Level.Iteration)
+    public void prepare() {
+        tick = Coeur.prepare("tick", graine, abeilles);
+    }
+
+    @Benchmark
+    public void tick() {
+        tick.run();
+    }
+}
@@ -0,0 +1,38 @@
+package bancs;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Accès par réflexion à la classe `Bancs`, qui est dans le paquetage par défaut comme le reste de la simulation.
+ * Les appels par réflexion ne sont faits que pendant la préparation des mesures, jamais pendant la mesure.
+ */
+final class Coeur {
+
+    private Coeur() {
+    }
+
+    /**
+     * Appelle une méthode statique de `Bancs`.
+     *
+     * @param nom  Le nom de la méthode.
+     * @param args Les arguments de la méthode.
+     * @param <T>  Le type retourné par la méthode.
+     * @return La valeur retournée par la méthode.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T prepare(String nom, Object... args) {
+        try {
+            for (Method m : Class.forName("Bancs").getMethods()) {
+                if (m.getName().equals(nom)) {
+                    return (T) m.invoke(null, args);
+                }
+            }
+            throw new IllegalArgumentException("Méthode inconnue : Bancs." + nom);
+        } catch (ClassNotFoundException | IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -2,24 +2,29 @@
  * Représente une abeille dans la simulation. L'abeille peut se déplacer, interagir avec des sources de nourriture,
  * et effectuer des danses pour communiquer l'emplacement des sources aux autres abeilles.
  * Chaque abeille possède une position, une direction et une vitesse.
+ *
+ * Les attributs sont stockés dans un `Essaim` (un tableau primitif par attribut) : un objet `Abeille`
+ * n'est qu'une vue sur l'abeille d'identifiant `id`.
  * 
  */
 abstract class Abeille implements Affichable {
-    
-    /** Position de l'abeille sur le plateau (en pixels) */
-    protected float x, y;
-    
-    /** Vecteur de direction de l'abeille (dx, dy) */
-    protected float dx, dy;
-    
-    /** Vitesse de déplacement de l'abeille */
-    protected float v = 5;
-    
-    /** Position de destination de l'abeille (en pixels) */
-    protected int destX = -10, destY = -10;
-    
-    /** Position de la source associée en matrice (coordonnées de la source) */
-    protected int XSource = -1, YSource = -1;
+
+    /** Essaim dans lequel sont stockés les attributs de l'abeille */
+    protected final Essaim essaim;
+
+    /** Identifiant de l'abeille dans l'essaim */
+    protected final int id;
+
+    /**
+     * Constructeur d'une vue sur une abeille de l'essaim.
+     * 
+     * @param essaim L'essaim contenant l'abeille.
+     * @param id     L'identifiant de l'abeille dans l'essaim.
+     */
+    Abeille(Essaim essaim, int id) {
+        this.essaim = essaim;
+        this.id = id;
+    }
 
 
     /**
@@ -36,8 +41,7 @@ abstract class Abeille implements Affichable {
      * Le déplacement est effectué selon le vecteur normalisé (dx, dy).
      */
     void deplace() {
-        this.x += (dx * v) / Math.sqrt(dx * dx + dy * dy);
-        this.y += (dy * v) / Math.sqrt(dx * dx + dy * dy);
+        essaim.deplace(id);
     }
 
 
@@ -47,7 +51,7 @@ abstract class Abeille implements Affichable {
      * @return true si l'abeille est à moins de 5px de sa destination, sinon false.
      */
     boolean Atteint() {
-        return ((x - 5 < destX) && (x + 5 > destX) && (y - 5 < destY) && (y + 5 > destY));
+        return essaim.atteint(id);
     }
 
 
@@ -58,11 +62,7 @@ abstract class Abeille implements Affichable {
      * @return true si la case contient une fleur avec du pollen, sinon false.
      */
     boolean isFlower(Tableau tab) {
-        // Convertit les coordonnées x et y en indices de matrice
-        int x1 = (int) (x / tab.getXCase());
-        int y1 = (int) (y / tab.getYCase());
-
-        return (tab.getPlateau()[y1][x1].getQtt() > 0);
+        return essaim.isFlower(id, tab);
     }
     
 
@@ -74,13 +74,7 @@ abstract class Abeille implements Affichable {
      * @param py Coordonnée y de la destination (en pixels).
      */
     void goCase(int px, int py) {
-        // Met à jour la destination
-        destX = px;
-        destY = py;
-        
-        // Met à jour le vecteur de direction (dx, dy)
-        dx = px - x;
-        dy = py - y;
+        essaim.goCase(id, px, py);
     }
 
 
@@ -93,23 +87,7 @@ abstract class Abeille implements Affichable {
      * @return true si la source a été ajoutée, sinon false (si elle était déjà présente).
      */
     boolean danse(int mx, int my) {
-        boolean flag = false;
-    
-        // Vérifie si la source n'est pas déjà dans la liste des sources observées
-        for (int i = 0; i < Observatrices.getCoordonneesEtQualite().length; i++) {
-            if ((Observatrices.getCoordonneesEtQualite()[i][0] == mx) && (Observatrices.getCoordonneesEtQualite()[i][1] == my)) {
-                flag = true;
-            }
-        }
-        
-        // Si la source est nouvelle, l'ajoute à la liste
-        if (!flag) {
-            Observatrices.getCoordonneesEtQualite()[Observatrices.getIndiceRemplissage()][0] = mx;
-            Observatrices.getCoordonneesEtQualite()[Observatrices.getIndiceRemplissage()][1] = my;
-            Observatrices.setIndiceRemplissage(Observatrices.getIndiceRemplissage() + 1);
-        }
-        
-        return !flag;
+        return essaim.danse(mx, my);
     }
 
 
@@ -120,10 +98,20 @@ abstract class Abeille implements Affichable {
      * @return true si l'abeille est à proximité de la ruche, sinon false.
      */
     boolean isRuche(Tableau tab) {
+        float x = getX(), y = getY();
         return ((((x - 5 < tab.getXruche() * tab.getXCase()) && (y + 5 > tab.getYruche() * tab.getYCase())) && 
                  ((x + 5 > tab.getXruche() * tab.getXCase()) && (y - 5 < tab.getYruche() * tab.getYCase()))));
     }
 
+    /**
+     * Retourne l'identifiant de l'abeille dans l'essaim.
+     * 
+     * @return L'identifiant de l'abeille.
+     */
+    public int getId() {
+        return id;
+    }
+
     // Getters et Setters pour les attributs
 
     /**
@@ -132,7 +120,7 @@ abstract class Abeille implements Affichable {
      * @return La position x de l'abeille (en pixels).
      */
     public float getX() {
-        return x;
+        return essaim.x[id];
     }
 
     /**
@@ -141,7 +129,7 @@ abstract class Abeille implements Affichable {
      * @return La position y de l'abeille (en pixels).
      */
     public float getY() {
-        return y;
+        return essaim.y[id];
     }
 
     /**
@@ -150,7 +138,7 @@ abstract class Abeille implements Affichable {
      * @return La direction x de l'abeille.
      */
     public float getDx() {
-        return dx;
+        return essaim.dx[id];
     }
 
     /**
@@ -159,7 +147,7 @@ abstract class Abeille implements Affichable {
      * @return La direction y de l'abeille.
      */
     public float getDy() {
-        return dy;
+        return essaim.dy[id];
     }
 
     /**
@@ -168,7 +156,7 @@ abstract class Abeille implements Affichable {
      * @return La vitesse de l'abeille.
      */
     public float getV() {
-        return v;
+        return essaim.v[id];
     }
 
     /**
@@ -177,7 +165,7 @@ abstract class Abeille implements Affichable {
      * @return La position x de la destination.
      */
     public int getDestX() {
-        return destX;
+        return essaim.destX[id];
     }
 
     /**
@@ -186,7 +174,7 @@ abstract class Abeille implements Affichable {
      * @return La position y de la destination.
      */
     public int getDestY() {
-        return destY;
+        return essaim.destY[id];
     }
 
     /**
@@ -195,7 +183,7 @@ abstract class Abeille implements Affichable {
      * @return La position x de la source.
      */
     public int getXSource() {
-        return XSource;
+        return essaim.xSource[id];
     }
 
     /**
@@ -204,7 +192,7 @@ abstract class Abeille implements Affichable {
      * @return La position y de la source.
      */
     public int getYSource() {
-        return YSource;
+        return essaim.ySource[id];
     }
 
     // Setters
@@ -215,7 +203,7 @@ abstract class Abeille implements Affichable {
      * @param v La nouvelle vitesse.
      */
     public void setV(float v) {
-        this.v = v;
+        essaim.v[id] = v;
     }
 
     /**
@@ -224,7 +212,7 @@ abstract class Abeille implements Affichable {
      * @param newX La nouvelle position x.
      */
     public void setX(float newX) {
-        this.x = newX;
+        essaim.x[id] = newX;
     }
 
     /**
@@ -233,7 +221,7 @@ abstract class Abeille implements Affichable {
      * @param newY La nouvelle position y.
      */
     public void setY(float newY) {
-        this.y = newY;
+        essaim.y[id] = newY;
     }
 
     /**
@@ -242,7 +230,7 @@ abstract class Abeille implements Affichable {
      * @param newDx La nouvelle direction x.
      */
     public void setDx(float newDx) {
-        this.dx = newDx;
+        essaim.dx[id] = newDx;
     }
 
     /**
@@ -251,7 +239,7 @@ abstract class Abeille implements Affichable {
      * @param newDy La nouvelle direction y.
      */
     public void setDy(float newDy) {
-        this.dy = newDy;
+        essaim.dy[id] = newDy;
     }
 
     /**
@@ -260,7 +248,7 @@ abstract class Abeille implements Affichable {
      * @param newDestX La nouvelle position x de la destination.
      */
     public void setDestX(int newDestX) {
-        this.destX = newDestX;
+        essaim.destX[id] = newDestX;
     }
 
     /**
@@ -269,7 +257,7 @@ abstract class Abeille implements Affichable {
      * @param newDestY La nouvelle position y de la destination.
      */
     public void setDestY(int newDestY) {
-        this.destY = newDestY;
+        essaim.destY[id] = newDestY;
     }
 
     /**
@@ -278,7 +266,7 @@ abstract class Abeille implements Affichable {
      * @param newXSource La nouvelle position x de la source.
      */
     public void setXSource(int newXSource) {
-        this.XSource = newXSource;
+        essaim.xSource[id] = newXSource;
     }
 
     /**
@@ -287,6 +275,6 @@ abstract class Abeille implements Affichable {
      * @param newYSource La nouvelle position y de la source.
      */
     public void setYSource(int newYSource) {
-        this.YSource = newYSource;
+        essaim.ySource[id] = newYSource;
     }
 }
\ No newline at end of file
@@ -0,0 +1,127 @@
+import java.util.SplittableRandom;
+
+/**
+ * Générateur pseudo-aléatoire de la simulation (SplitMix64), initialisé par une graine explicite.
+ * Il remplace `Math.random()`, qui est partagé par tout le programme et ne peut pas être initialisé :
+ * avec la même graine, une simulation séquentielle donne exactement le même résultat.
+ *
+ * Une instance sert de flux principal, utilisé pour générer le plateau. Chaque abeille possède en plus
+ * son propre flux, réduit à un `long` d'état rangé dans l'`Essaim` (voir `flux` et `suivant(long[], int)`) :
+ * les abeilles ne se partagent aucun générateur, ce qui évite toute contention pendant un tick parallèle
+ * et rend les tirages d'une abeille indépendants de l'ordre dans lequel les threads les traitent.
+ */
+public class Alea {
+
+    // Incrément de SplitMix64 (partie fractionnaire du nombre d'or)
+    private static final long GAMMA = 0x9E3779B97F4A7C15L;
+
+    // Graine d'origine et état courant du flux principal
+    private final long graine;
+    private long etat;
+
+    /**
+     * Constructeur du générateur.
+     *
+     * @param graine La graine du générateur.
+     */
+    public Alea(long graine) {
+        this(graine, graine);
+    }
+
+    /**
+     * Constructeur d'un générateur repris dans un état donné (voir `Sauvegarde`).
+     *
+     * @param graine La graine d'origine du générateur.
+     * @param etat   L'état courant du flux principal.
+     */
+    Alea(long graine, long etat) {
+        this.graine = graine;
+        this.etat = etat;
+    }
+
+    /**
+     * Tire une graine au hasard, pour une simulation dont la graine n'a pas été choisie.
+     *
+     * @return Une nouvelle graine.
+     */
+    public static long graineAleatoire() {
+        return new SplittableRandom().nextLong();
+    }
+
+    /**
+     * Fonction de mélange de SplitMix64.
+     *
+     * @param z La valeur à mélanger.
+     * @return La valeur mélangée.
+     */
+    static long melange(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Retourne le prochain entier de 64 bits du flux principal.
+     *
+     * @return Un entier pseudo-aléatoire.
+     */
+    public long suivantLong() {
+        etat += GAMMA;
+        return melange(etat);
+    }
+
+    /**
+     * Retourne le prochain nombre du flux principal, comme `Math.random()`.
+     *
+     * @return Un nombre pseudo-aléatoire dans [0, 1).
+     */
+    public double suivant() {
+        return (suivantLong() >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * Crée les états de n flux indépendants, dérivés du flux principal.
+     *
+     * @param n Le nombre de flux.
+     * @return Les états initiaux des flux.
+     */
+    public long[] flux(int n) {
+        long base = suivantLong();
+        long[] etats = new long[n];
+        for (int i = 0; i < n; i++) {
+            etats[i] = melange(base + i);
+        }
+        return etats;
+    }
+
+    /**
+     * Retourne le prochain nombre d'un flux créé par `flux`, en faisant avancer son état.
+     *
+     * @param etats Les états des flux.
+     * @param i     L'indice du flux.
+     * @return Un nombre pseudo-aléatoire dans [0, 1).
+     */
+    static double suivant(long[] etats, int i) {
+        long e = etats[i] + GAMMA;
+        etats[i] = e;
+        return (melange(e) >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * Retourne la graine d'origine du générateur.
+     *
+     * @return La graine.
+     */
+    public long getGraine() {
+        return graine;
+    }
+
+    /**
+     * Retourne l'état courant du flux principal.
+     *
+     * @return L'état du flux principal.
+     */
+    long getEtat() {
+        return etat;
+    }
+}
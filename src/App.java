@@ -1,3 +1,11 @@
+import javax.swing.*;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ForkJoinPool;
+import javax.management.JMException;
+
 /**
  * Classe principale de l'application représentant la simulation des abeilles et de leur interaction avec l'environnement.
  * La classe initialise et lance la simulation, en affichant les éléments nécessaires dans la fenêtre d'affichage.
@@ -9,14 +17,36 @@ public class App {
     /**
      * Méthode principale pour démarrer la simulation.
      * 
-     * Cette méthode crée les objets nécessaires à la simulation, attend le démarrage de l'interface utilisateur,
+     * Sans l'option `--headless`, cette méthode crée les objets nécessaires à la simulation, attend le démarrage de l'interface utilisateur,
      * initialise la carte (Tableau), crée la fenêtre d'affichage et lance l'exécution de la simulation.
+     * Les autres options de la ligne de commande (taille du plateau, dimensions du monde et de la fenêtre...)
+     * s'appliquent aussi dans ce mode.
+     * 
+     * Avec l'option `--headless`, la simulation est lancée sans aucune fenêtre à partir des paramètres
+     * de la ligne de commande ou d'un fichier de propriétés (voir `Parametres`).
      * 
-     * @param args Les arguments de la ligne de commande (non utilisés ici).
+     * @param args Les arguments de la ligne de commande (voir `Parametres.depuisArguments`).
      */
     public static void main(String[] args){
-        // Initialisation de l'interface utilisateur
-        InterfaceSimulation interfacesimulation = new InterfaceSimulation();
+        Parametres params;
+        try {
+            params = Parametres.depuisArguments(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+            return;
+        }
+
+        if (params.isHeadless()) {
+            runSansInterface(params);
+            return;
+        }
+
+        // Décodage des images en arrière-plan pendant que l'utilisateur choisit les paramètres
+        CacheImages cache = CacheImages.prechargeEnArrierePlan();
+
+        // Initialisation de l'interface utilisateur, préremplie avec les paramètres de la ligne de commande
+        InterfaceSimulation interfacesimulation = new InterfaceSimulation(params);
         
         // Attente du démarrage de la simulation dans l'interface
         while(!interfacesimulation.getStart()) {
@@ -28,98 +58,285 @@ public class App {
         }
 
         // Paramètres de la simulation (dimensions, sources, pollen, abeilles, etc.)
-        int w = 1400;
-        int h = 800;
-        int sizeMat = 25, nbsource = interfacesimulation.getSources(), qttpolen = interfacesimulation.getPollen();
-        int nbAbeilleObservatrice = interfacesimulation.getObservatrices(), nbAbeilleEclaireuse = interfacesimulation.getEclaireuses();
-        int es = interfacesimulation.getVisites();
-
-        // Création de la carte de simulation
-        Tableau map = new Tableau(sizeMat, nbsource, qttpolen, nbAbeilleObservatrice, nbAbeilleEclaireuse, h, w, es);
-        
-        // Création de la fenêtre d'affichage
-        Display d = new Display(w, h, nbsource + nbAbeilleObservatrice + nbAbeilleEclaireuse);
+        params = interfacesimulation.getParametres();
 
-        // Affichage initial des éléments : fond, ruche, abeilles, pollen
-        d.affBackround();
-        d.affRuche(map);
-        d.affAbeille((Ruche) map.getPlateau()[map.getYruche()][map.getXruche()]);
-        d.affPolen(map);
+        // Création de la carte de simulation (ou reprise d'une sauvegarde)
+        Simulation sim = creeSimulation(params);
+        System.out.println("Graine : " + sim.getMap().getAlea().getGraine());
 
-        // Lancement de la simulation
-        run(d, map, nbAbeilleObservatrice + nbsource, interfacesimulation);
+        // Lancement de la simulation (la fenêtre d'affichage est créée par run)
+        cache.attend();
+        Journal journal = ouvreJournal(params, sim);
+        Mesures mesures = ouvreMesures(params, sim);
+        run(params.getLargeurFenetre(), params.getHauteurFenetre(), sim, cache, interfacesimulation);
+        fermeJournal(journal);
+        if (mesures != null) {
+            mesures.desenregistre();
+        }
     }
 
+    /** Durée d'une image de l'affichage en nanosecondes (environ 60 images par seconde) */
+    private static final long PERIODE_IMAGE = 1_000_000_000L / 60;
+
     /**
      * Méthode exécutant la simulation en animant les actions des abeilles et de l'environnement.
      * 
-     * La méthode met à jour l'état de la simulation à chaque étape, en simulant le mouvement des abeilles
-     * (éclaireuses, employés, observatrices) et en affichant les changements à l'écran.
+     * Les ticks sont faits sur un fil dédié (`boucleSimulation`) ; le fil d'affichage de Swing ne touche
+     * jamais au modèle. Après chaque tick, le fil de simulation publie un instantané des positions des abeilles
+     * et des quantités de pollen (`EchangeInstantanes`), et un minuteur Swing redessine environ 60 fois par
+     * seconde le dernier instantané publié. Aucun des deux fils n'attend l'autre.
      * 
      * La simulation continue jusqu'à ce que 85% du pollen soit récolté dans la ruche.
      * 
-     * @param d La fenêtre d'affichage utilisée pour afficher l'état de la simulation.
-     * @param map La carte représentant l'environnement de la simulation.
-     * @param nbAbeille Le nombre total d'abeilles dans la simulation (éclaireuses, employés, observatrices).
+     * @param w La largeur de la fenêtre d'affichage en pixels (le monde est réduit s'il est plus grand).
+     * @param h La hauteur de la fenêtre d'affichage en pixels (le monde est réduit s'il est plus grand).
+     * @param sim La simulation à animer.
+     * @param cache Le cache des images à utiliser pour le dessin.
      * @param interfacesimu L'interface de simulation contenant les paramètres de la simulation.
      */
-    private static void run(Display d, Tableau map, int nbAbeille, InterfaceSimulation interfacesimu){
-        // Accède à la ruche et à sa population d'abeilles
-        Ruche r = (Ruche) map.getPlateau()[map.getYruche()][map.getXruche()];
-        Abeille[] bees = r.getPopulation();
-        
-        // Initialisation des éclaireuses et de la simulation
-        r.goCaseEclaireuses(map);
+    private static void run(int w, int h, Simulation sim, CacheImages cache, InterfaceSimulation interfacesimu){
+        Tableau map = sim.getMap();
+        EchangeInstantanes echange = new EchangeInstantanes(sim);
 
-        int max_employees = r.getNbEclaireuse(); // Nombre maximal d'employés actifs à un moment donné
-        int base = max_employees + r.getNbEmployees(); // Indice de la première observatrice
-        int max_observatrice = base; // Nombre maximal d'observatrices actives à un moment donné
-        int cpt = 0; // Compteur pour l'activation des observatrices
+        // Création de la fenêtre d'affichage et du minuteur de dessin sur le fil de Swing
+        Display[] d = new Display[1];
+        Timer[] minuteur = new Timer[1];
+        try {
+            SwingUtilities.invokeAndWait(() -> {
+                d[0] = new Display(w, h, map, cache, echange);
+                if (sim.getMesures() != null) {
+                    d[0].setMesureDessin(sim.getMesures().dessin);
+                }
+                minuteur[0] = new Timer((int) (PERIODE_IMAGE / 1_000_000), e -> d[0].affAbeille());
+                minuteur[0].start();
+            });
+        } catch (InterruptedException | InvocationTargetException e) {
+            throw new IllegalStateException("Impossible de créer la fenêtre d'affichage", e);
+        }
+
+        // Les ticks sont faits sur un fil dédié, le fil principal attend seulement la fin
+        Thread fil = new Thread(() -> boucleSimulation(sim, echange, interfacesimu), "simulation");
+        fil.start();
+        try {
+            fil.join();
+        } catch (InterruptedException e) {
+            fil.interrupt();
+            Thread.currentThread().interrupt();
+        }
+
+        // Dernier dessin de l'état final
+        SwingUtilities.invokeLater(() -> {
+            minuteur[0].stop();
+            d[0].affAbeille();
+        });
+
+        sim.afficheResultats();
+    }
+
+    /**
+     * Boucle du fil de simulation.
+     * 
+     * La simulation avance à pas de temps fixe selon l'horloge (`Horloge`) : le nombre de ticks effectués
+     * dépend uniquement du temps écoulé et de la vitesse choisie, et non du temps pris par l'affichage.
+     * Un instantané est publié après chaque tick, avec les positions d'avant le tick et l'instant logique du tick,
+     * pour que l'affichage interpole entre les deux. En vitesse illimitée, il n'est publié qu'une fois par
+     * image et sans interpolation, car l'affichage ne pourrait de toute façon pas montrer les instantanés intermédiaires.
+     * 
+     * @param sim La simulation à faire avancer.
+     * @param echange L'échange par lequel les instantanés sont publiés.
+     * @param interfacesimu L'interface de simulation (vitesse et pause).
+     */
+    private static void boucleSimulation(Simulation sim, EchangeInstantanes echange, InterfaceSimulation interfacesimu){
+        Horloge horloge = new Horloge();
 
         // La simulation continue jusqu'à ce que 85% du pollen soit récolté dans la ruche
-        while(map.getPlateau()[map.getXruche()][map.getYruche()].getQtt() < map.getQttpolen() * 0.85){
-            // Met en pause le processus pour avoir un affichage du mouvement
-            try { 
-                Thread.sleep(interfacesimu.getRafraichissement()); 
-            } catch(InterruptedException e) {}
-            
-            if(!interfacesimu.getPause()){
-                // Action des éclaireuses
-                for(int i = 0; i < r.getNbEclaireuse(); ++i){
-                    if(bees[i].mouv(map)) {
-                        max_employees += 1; // Augmente le nombre d'employés
-                    }
-                }
+        while(!sim.estTerminee() && !Thread.currentThread().isInterrupted()){
+            long debutImage = System.nanoTime();
+            horloge.setVitesse(interfacesimu.getVitesse());
 
-                // Action des employés (qui rapportent du pollen)
-                for(int i = r.getNbEclaireuse(); i < max_employees; ++i){
-                    if(bees[i].mouv(map)){
-                        cpt += 1;
-                        // Active un certain nombre d'observatrices en fonction du nombre d'employés
-                        max_observatrice = (int)((cpt * r.getNbObservatrice()) / r.getNbEmployees()) + base;
-                    }
+            if(interfacesimu.getPause()){
+                horloge.reinitialise();
+            } else if (horloge.estIllimitee()) {
+                // Vitesse illimitée : on avance tant qu'il reste du temps dans l'image
+                horloge.reinitialise();
+                do {
+                    sim.tick();
+                } while (!sim.estTerminee() && System.nanoTime() - debutImage < PERIODE_IMAGE);
+                echange.publie(sim);
+            } else {
+                // Rattrape autant de ticks que le temps écoulé l'exige
+                int n = horloge.ticksAFaire();
+                for (int i = 0; i < n && !sim.estTerminee(); i++) {
+                    echange.avantTick(sim);
+                    sim.tick();
+                    echange.publie(sim, System.nanoTime() - horloge.getAccumule(), horloge.getPeriode());
                 }
+            }
 
-                // Action des observatrices
-                for(int i = r.getNbEclaireuse() + r.getNbEmployees(); i < max_observatrice; ++i){
-                    bees[i].mouv(map);
+            // Attend l'image suivante
+            long reste = PERIODE_IMAGE - (System.nanoTime() - debutImage);
+            if (reste > 0) {
+                try { 
+                    Thread.sleep(reste / 1_000_000, (int) (reste % 1_000_000)); 
+                } catch(InterruptedException e) {
+                    return;
                 }
-
-                // Supprimer les abeilles et réafficher leur nouvelle position
-                d.supAbeille();
-                d.affAbeille(r);
             }
         }
-        
-        // Affichage des coordonnées des sources observées
-        for(int i = 0; i < Observatrices.getCoordonneesEtQualite().length; i++){
-            for(int j = 0; j < 3; j++){
-                System.out.print(Observatrices.getCoordonneesEtQualite()[i][j] + "   ");
+    }
+
+    /**
+     * Crée la simulation décrite par les paramètres, ou la reprend depuis le fichier `reprise` s'il est donné.
+     * Quitte le programme si la sauvegarde ne peut pas être lue.
+     * 
+     * @param params Les paramètres de la simulation.
+     * @return La simulation, prête à avancer.
+     */
+    static Simulation creeSimulation(Parametres params){
+        if (params.getReprise() == null) {
+            Simulation sim = new Simulation(params.creeTableau());
+            sim.setEvenementiel(params.isEvenementiel());
+            return sim;
+        }
+        try {
+            long debut = System.nanoTime();
+            Simulation sim = Sauvegarde.lit(Paths.get(params.getReprise()));
+            sim.getMap().setVerbeux(params.isVerbeux());
+            sim.setEvenementiel(params.isEvenementiel());
+            System.out.printf("Reprise au tick %d (%.3f s)%n", sim.getNbTicks(), (System.nanoTime() - debut) / 1e9);
+            return sim;
+        } catch (IOException e) {
+            System.err.println("Impossible de reprendre la simulation : " + e.getMessage());
+            System.exit(1);
+            return null;
+        }
+    }
+
+    /**
+     * Ouvre le journal des événements demandé par le paramètre `journal` et le branche sur la simulation.
+     * 
+     * @param params Les paramètres de la simulation.
+     * @param sim La simulation à journaliser.
+     * @return Le journal ouvert, ou null s'il n'y en a pas (ou s'il n'a pas pu être créé).
+     */
+    static Journal ouvreJournal(Parametres params, Simulation sim){
+        if (params.getJournal() == null) {
+            return null;
+        }
+        try {
+            Journal journal = new Journal(Paths.get(params.getJournal()), sim);
+            sim.setJournal(journal);
+            return journal;
+        } catch (IOException e) {
+            System.err.println("Impossible de créer le journal : " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Crée les mesures de la simulation et les publie par JMX si le paramètre `mesures` est donné.
+     * 
+     * @param params Les paramètres de la simulation.
+     * @param sim La simulation à mesurer.
+     * @return Les mesures publiées, ou null s'il n'y en a pas (ou si elles n'ont pas pu être publiées).
+     */
+    static Mesures ouvreMesures(Parametres params, Simulation sim){
+        if (!params.isMesures()) {
+            return null;
+        }
+        Mesures mesures = new Mesures();
+        try {
+            mesures.enregistre();
+        } catch (JMException e) {
+            System.err.println("Impossible de publier les mesures par JMX : " + e.getMessage());
+            return null;
+        }
+        sim.setMesures(mesures);
+        System.out.println("Mesures publiées par JMX sous " + Mesures.DOMAINE + ":*");
+        return mesures;
+    }
+
+    /**
+     * Ferme le journal des événements, s'il y en a un.
+     * 
+     * @param journal Le journal (ou null).
+     */
+    static void fermeJournal(Journal journal){
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            System.err.println("Erreur d'écriture du journal : " + e.getMessage());
+        }
+    }
+
+    /**
+     * Sauvegarde la simulation ; une erreur d'écriture est signalée sans arrêter la simulation.
+     * 
+     * @param sim La simulation (entre deux ticks).
+     * @param fichier Le fichier de sauvegarde.
+     */
+    private static void sauvegarde(Simulation sim, Path fichier){
+        try {
+            Sauvegarde.ecrit(sim, fichier);
+        } catch (IOException e) {
+            System.err.println("Impossible de sauvegarder la simulation : " + e.getMessage());
+        }
+    }
+
+    /**
+     * Exécute la simulation sans interface graphique et aussi vite que possible (aucune pause entre les ticks).
+     * 
+     * Affiche à la fin le nombre de ticks nécessaires pour atteindre 85% de récolte et le débit en ticks par seconde.
+     * La simulation est abandonnée si elle n'a pas abouti après `maxTicks` ticks.
+     * Avec le paramètre `parallele`, chaque phase du tick est répartie sur `threads` threads.
+     * Avec le paramètre `evenementiel`, seules les actions programmées des abeilles sont exécutées (voir `Evenements`).
+     * Avec le paramètre `sauvegarde`, l'état est sauvegardé tous les `periodeSauvegarde` ticks, et à la fin
+     * si l'objectif n'est pas atteint, pour pouvoir reprendre la simulation avec `reprise`.
+     * 
+     * @param params Les paramètres de la simulation.
+     */
+    static void runSansInterface(Parametres params){
+        Simulation sim = creeSimulation(params);
+        System.out.println("Graine : " + sim.getMap().getAlea().getGraine());
+        ForkJoinPool pool = null;
+        if (params.isParallele()) {
+            pool = new ForkJoinPool(params.getThreads());
+            sim.setPool(pool);
+        }
+
+        Journal journal = ouvreJournal(params, sim);
+        Mesures mesures = ouvreMesures(params, sim);
+        long debut = System.nanoTime(), ticksDebut = sim.getNbTicks();
+        if (params.getSauvegarde() == null) {
+            sim.execute(params.getMaxTicks());
+        } else {
+            Path fichier = Paths.get(params.getSauvegarde());
+            while (!sim.execute(Math.min(params.getMaxTicks(), sim.getNbTicks() + params.getPeriodeSauvegarde()))
+                   && sim.getNbTicks() < params.getMaxTicks() && !Thread.currentThread().isInterrupted()) {
+                sauvegarde(sim, fichier);
             }
-            System.out.println();
+            if (!sim.estTerminee()) {
+                sauvegarde(sim, fichier);
+            }
+        }
+        double secondes = (System.nanoTime() - debut) / 1e9;
+        if (pool != null) {
+            pool.shutdown();
+        }
+        fermeJournal(journal);
+        if (mesures != null) {
+            mesures.desenregistre();
         }
 
-        // Affichage du pollen récolté et du pollen total
-        System.out.print("Pollen récolté: "+ map.getPlateau()[map.getXruche()][map.getYruche()].getQtt()+"  Pollen total: " + map.getQttpolen());
+        sim.afficheResultats();
+        if (sim.estTerminee()) {
+            System.out.println("Ticks pour atteindre 85% : " + sim.getNbTicks());
+        } else {
+            System.out.println("Objectif de 85% non atteint après " + sim.getNbTicks() + " ticks");
+        }
+        System.out.printf("Durée : %.3f s  (%.0f ticks/s)%n", secondes, (sim.getNbTicks() - ticksDebut) / Math.max(secondes, 1e-9));
     }
 }
\ No newline at end of file
@@ -0,0 +1,254 @@
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Balayage de paramètres : exécute sans interface une simulation pour chaque combinaison de valeurs
+ * des paramètres de la colonie, en répartissant les simulations sur tous les cœurs, et écrit une ligne
+ * CSV par simulation.
+ *
+ * Les paramètres balayables sont pollen, sources, visites, eclaireuses et observatrices. Leur valeur peut être
+ * une liste (`--sources=5,10,20`), un intervalle `debut:fin` ou `debut:fin:pas` (bornes incluses), ou un mélange
+ * des deux (`--pollen=100,200:1000:200`). Les autres paramètres de `Parametres` (taille, maxTicks, graine...)
+ * sont communs à toutes les simulations ; `parallele` et `threads` s'appliquent à chaque simulation, et les paramètres
+ * qui écrivent dans un fichier ou publient des mesures (`Parametres.UNE_SIMULATION`) sont refusés, car ils ne désignent
+ * qu'une seule simulation. Comme pour `App`, `--parallele` est un raccourci pour `--parallele=true`.
+ * Options propres au balayage :
+ * - `--sortie=fichier.csv` : fichier de résultats (par défaut la sortie standard) ;
+ * - `--travailleurs=n` : nombre de simulations exécutées en même temps (par défaut le nombre de processeurs).
+ *
+ * Toutes les simulations utilisent la même graine (donnée, ou tirée au hasard et écrite dans chaque ligne) :
+ * chaque ligne peut être rejouée avec `App --headless` et les mêmes paramètres.
+ * Les lignes sont écrites dès qu'une simulation se termine, dans l'ordre de fin (colonne `indice`).
+ */
+public class Balayage {
+
+    /** Paramètres pouvant prendre plusieurs valeurs */
+    static final String[] BALAYABLES = {"pollen", "sources", "visites", "eclaireuses", "observatrices"};
+
+    /** En-tête du fichier CSV */
+    static final String ENTETE = "indice,graine,pollen,sources,visites,eclaireuses,observatrices,"
+            + "ticks,atteint,pollenRecolte,sourcesDecouvertes,dureeMs,erreur";
+
+    /**
+     * Point d'entrée du balayage.
+     *
+     * @param args Les paramètres du balayage (voir la description de la classe).
+     */
+    public static void main(String[] args) {
+        Map<String, int[]> plages = new LinkedHashMap<>();
+        Properties communs = new Properties();
+        String sortie = null;
+        int travailleurs = Runtime.getRuntime().availableProcessors();
+
+        try {
+            for (String arg : args) {
+                int egal = arg.indexOf('=');
+                if (Parametres.estDrapeau(arg)) {
+                    arg = arg + "=true";
+                    egal = arg.indexOf('=');
+                } else if (!arg.startsWith("--") || egal < 3) {
+                    throw new IllegalArgumentException("Argument inconnu : " + arg);
+                }
+                String cle = arg.substring(2, egal), valeur = arg.substring(egal + 1);
+                if (Arrays.asList(Parametres.UNE_SIMULATION).contains(cle)) {
+                    throw new IllegalArgumentException("Paramètre non pris en charge par le balayage : " + cle);
+                } else if (cle.equals("sortie")) {
+                    sortie = valeur;
+                } else if (cle.equals("travailleurs")) {
+                    travailleurs = Integer.parseInt(valeur);
+                } else if (Arrays.asList(BALAYABLES).contains(cle)) {
+                    plages.put(cle, valeurs(valeur));
+                } else {
+                    communs.setProperty(cle, valeur);
+                }
+            }
+            if (travailleurs < 1) {
+                throw new IllegalArgumentException("Il faut au moins un travailleur");
+            }
+            // Fixe la graine commune
+            if (communs.getProperty("graine") == null) {
+                communs.setProperty("graine", Alea.graineAleatoire() + "");
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+            return;
+        }
+
+        List<Properties> points = combinaisons(communs, plages);
+        System.err.println(points.size() + " simulations sur " + travailleurs + " travailleurs");
+
+        if (sortie == null) {
+            // Pas de try-with-resources : fermer ce PrintWriter fermerait aussi System.out
+            execute(points, travailleurs, new PrintWriter(System.out));
+            return;
+        }
+        try (Writer w = new FileWriter(sortie)) {
+            execute(points, travailleurs, new PrintWriter(w));
+        } catch (IOException e) {
+            System.err.println("Impossible d'écrire les résultats : " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Lit les valeurs d'un paramètre balayé.
+     *
+     * @param texte Une liste de valeurs et d'intervalles séparés par des virgules.
+     * @return Les valeurs, dans l'ordre donné.
+     * @throws IllegalArgumentException si le texte est invalide.
+     */
+    static int[] valeurs(String texte) {
+        List<Integer> liste = new ArrayList<>();
+        try {
+            for (String morceau : texte.split(",")) {
+                String[] bornes = morceau.trim().split(":");
+                if (bornes.length == 1) {
+                    liste.add(Integer.parseInt(bornes[0]));
+                } else if (bornes.length <= 3) {
+                    int debut = Integer.parseInt(bornes[0]), fin = Integer.parseInt(bornes[1]);
+                    int pas = bornes.length == 3 ? Integer.parseInt(bornes[2]) : 1;
+                    if (pas <= 0) {
+                        throw new IllegalArgumentException("Le pas doit être positif : " + morceau);
+                    }
+                    for (long v = debut; v <= fin; v += pas) {
+                        liste.add((int) v);
+                    }
+                } else {
+                    throw new IllegalArgumentException("Intervalle invalide : " + morceau);
+                }
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valeurs invalides : " + texte);
+        }
+        if (liste.isEmpty()) {
+            throw new IllegalArgumentException("Aucune valeur : " + texte);
+        }
+        return liste.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Construit les propriétés de toutes les combinaisons des valeurs balayées.
+     *
+     * @param communs Les propriétés communes à toutes les simulations.
+     * @param plages  Les valeurs de chaque paramètre balayé.
+     * @return Les propriétés de chaque simulation.
+     */
+    static List<Properties> combinaisons(Properties communs, Map<String, int[]> plages) {
+        List<Properties> points = new ArrayList<>();
+        points.add(communs);
+        for (Map.Entry<String, int[]> plage : plages.entrySet()) {
+            List<Properties> suivants = new ArrayList<>(points.size() * plage.getValue().length);
+            for (Properties p : points) {
+                for (int v : plage.getValue()) {
+                    Properties q = new Properties();
+                    q.putAll(p);
+                    q.setProperty(plage.getKey(), v + "");
+                    suivants.add(q);
+                }
+            }
+            points = suivants;
+        }
+        return points;
+    }
+
+    /**
+     * Exécute toutes les simulations et écrit une ligne CSV par simulation, au fur et à mesure.
+     *
+     * @param points       Les propriétés de chaque simulation.
+     * @param travailleurs Le nombre de simulations exécutées en même temps.
+     * @param out          La destination des lignes CSV.
+     */
+    static void execute(List<Properties> points, int travailleurs, PrintWriter out) {
+        out.println(ENTETE);
+        out.flush();
+
+        ExecutorService executeur = Executors.newFixedThreadPool(travailleurs);
+        CompletionService<String> resultats = new ExecutorCompletionService<>(executeur);
+        for (int i = 0; i < points.size(); i++) {
+            int indice = i;
+            resultats.submit(() -> simule(indice, points.get(indice)));
+        }
+
+        try {
+            for (int i = 0; i < points.size(); i++) {
+                out.println(resultats.take().get());
+                out.flush();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executeur.shutdownNow();
+        }
+    }
+
+    /**
+     * Exécute une simulation jusqu'à 85% de récolte (ou `maxTicks`) et retourne sa ligne CSV.
+     *
+     * @param indice L'indice de la simulation dans le balayage.
+     * @param props  Les propriétés de la simulation.
+     * @return La ligne CSV de la simulation.
+     */
+    static String simule(int indice, Properties props) {
+        StringBuilder ligne = new StringBuilder();
+        ligne.append(indice).append(',').append(props.getProperty("graine"));
+
+        Parametres params;
+        Simulation sim;
+        long dureeMs;
+        ForkJoinPool pool = null;
+        try {
+            params = Parametres.depuisProprietes(props);
+            long debut = System.nanoTime();
+            sim = new Simulation(params.creeTableau());
+            sim.setEvenementiel(params.isEvenementiel());
+            if (params.isParallele()) {
+                pool = new ForkJoinPool(params.getThreads());
+                sim.setPool(pool);
+            }
+            sim.execute(params.getMaxTicks());
+            dureeMs = (System.nanoTime() - debut) / 1_000_000;
+        } catch (RuntimeException e) {
+            // Combinaison incohérente (par exemple plus de sources que de pollen) ou simulation en erreur :
+            // ligne sans résultat, le balayage continue
+            Parametres d = new Parametres();
+            int[] defauts = {d.getPollen(), d.getSources(), d.getVisites(), d.getEclaireuses(), d.getObservatrices()};
+            for (int k = 0; k < BALAYABLES.length; k++) {
+                ligne.append(',').append(props.getProperty(BALAYABLES[k], defauts[k] + ""));
+            }
+            return ligne.append(",,,,,,").append(String.valueOf(e.getMessage()).replace(',', ';')).toString();
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+
+        return ligne.append(',').append(params.getPollen())
+                .append(',').append(params.getSources())
+                .append(',').append(params.getVisites())
+                .append(',').append(params.getEclaireuses())
+                .append(',').append(params.getObservatrices())
+                .append(',').append(sim.getNbTicks())
+                .append(',').append(sim.estTerminee())
+                .append(',').append(sim.getRuche().getPollenRecolte())
+                .append(',').append(sim.getRuche().getRegistre().size())
+                .append(',').append(dureeMs)
+                .append(',').toString();
+    }
+}
@@ -0,0 +1,160 @@
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache des images de la simulation.
+ * Chaque fichier du répertoire `images` n'est décodé qu'une seule fois, puis chaque taille demandée
+ * est redimensionnée une seule fois dans une image compatible avec l'écran (dessin le plus rapide possible).
+ * Tous les dessins de `PanneauSimulation` passent par ce cache.
+ *
+ * Le décodage et les redimensionnements connus à l'avance (abeilles en 50px et 43px) peuvent être faits
+ * en arrière-plan pendant que l'utilisateur remplit `InterfaceSimulation`.
+ */
+public class CacheImages {
+
+    /** Répertoire des images */
+    static final String REPERTOIRE = "images/";
+
+    /** Images chargées au démarrage */
+    static final String[] IMAGES = {"eclaireuses.png", "employees.png", "observatrice.png", "polen.png", "ruche.png", "fond.jpg"};
+
+    /** Coefficient de taille du plus gros tas de pollen */
+    static final int COEF_MAX = 7;
+
+    // Images décodées, par nom de fichier
+    private final Map<String, BufferedImage> originaux = new ConcurrentHashMap<>();
+
+    // Images redimensionnées, par nom de fichier et taille ("nom@largeurxhauteur")
+    private final Map<String, BufferedImage> redimensionnees = new ConcurrentHashMap<>();
+
+    // Configuration de l'écran (null en mode sans affichage)
+    private final GraphicsConfiguration gc;
+
+    // Préchargement en cours
+    private CompletableFuture<Void> prechargement = CompletableFuture.completedFuture(null);
+
+    /**
+     * Constructeur du cache (vide).
+     */
+    public CacheImages() {
+        GraphicsConfiguration conf = null;
+        if (!GraphicsEnvironment.isHeadless()) {
+            conf = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+        }
+        gc = conf;
+    }
+
+    /**
+     * Crée un cache et lance en arrière-plan le décodage de toutes les images ainsi que
+     * le redimensionnement des images d'abeilles.
+     *
+     * @return Le cache en cours de remplissage.
+     */
+    public static CacheImages prechargeEnArrierePlan() {
+        CacheImages cache = new CacheImages();
+        cache.prechargement = CompletableFuture.runAsync(() -> {
+            for (String nom : IMAGES) {
+                cache.original(nom);
+            }
+            cache.get("eclaireuses.png", 50, 50);
+            cache.get("employees.png", 50, 50);
+            cache.get("observatrice.png", 43, 43);
+        });
+        return cache;
+    }
+
+    /**
+     * Attend la fin du préchargement en arrière-plan.
+     */
+    public void attend() {
+        prechargement.join();
+    }
+
+    /**
+     * Retourne l'image décodée d'un fichier, en la décodant au premier appel.
+     *
+     * @param nom Le nom du fichier dans le répertoire des images.
+     * @return L'image décodée (une image vide si le fichier est illisible).
+     */
+    BufferedImage original(String nom) {
+        return originaux.computeIfAbsent(nom, n -> {
+            try {
+                BufferedImage image = ImageIO.read(new File(REPERTOIRE + n));
+                if (image != null) {
+                    return image;
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            System.err.println("Image illisible : " + REPERTOIRE + n);
+            return new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+        });
+    }
+
+    /**
+     * Retourne une image redimensionnée, en la calculant au premier appel pour cette taille.
+     *
+     * @param nom     Le nom du fichier dans le répertoire des images.
+     * @param largeur La largeur voulue en pixels.
+     * @param hauteur La hauteur voulue en pixels.
+     * @return L'image redimensionnée, compatible avec l'écran.
+     */
+    public BufferedImage get(String nom, int largeur, int hauteur) {
+        int l = Math.max(1, largeur), h = Math.max(1, hauteur);
+        return redimensionnees.computeIfAbsent(nom + "@" + l + "x" + h, cle -> redimensionne(original(nom), l, h));
+    }
+
+    /**
+     * Redimensionne une image dans une image compatible avec l'écran.
+     *
+     * @param source  L'image à redimensionner.
+     * @param largeur La largeur voulue en pixels.
+     * @param hauteur La hauteur voulue en pixels.
+     * @return La nouvelle image.
+     */
+    private BufferedImage redimensionne(BufferedImage source, int largeur, int hauteur) {
+        BufferedImage image;
+        if (gc != null) {
+            image = gc.createCompatibleImage(largeur, hauteur, source.getColorModel().getTransparency());
+        } else {
+            image = new BufferedImage(largeur, hauteur, BufferedImage.TYPE_INT_ARGB);
+        }
+        Graphics2D g = image.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.drawImage(source, 0, 0, largeur, hauteur, null);
+        g.dispose();
+        return image;
+    }
+
+    /**
+     * Calcule le coefficient de taille d'un tas de pollen (1 pour un petit tas, 7 pour une source
+     * contenant tout le pollen), avec la même formule que l'ancien affichage.
+     *
+     * @param qtt      La quantité de pollen de la source.
+     * @param qttpolen La quantité totale de pollen du plateau.
+     * @return Le coefficient de taille, borné entre 1 et `COEF_MAX` (utile pour de très petites quantités totales de pollen).
+     */
+    static int coefPollen(int qtt, int qttpolen) {
+        return Math.min(COEF_MAX, qtt / Math.max(1, qttpolen / 6) + 1);
+    }
+
+    /**
+     * Redimensionne à l'avance toutes les tailles de tas de pollen possibles pour un plateau.
+     *
+     * @param yCase La hauteur d'une case en pixels.
+     * @return Les images des tas, indexées par coefficient de taille (de 1 à `COEF_MAX`, la case 0 est vide).
+     */
+    public BufferedImage[] prepareTasPollen(int yCase) {
+        BufferedImage[] tas = new BufferedImage[COEF_MAX + 1];
+        for (int coef = 1; coef <= COEF_MAX; coef++) {
+            tas[coef] = get("polen.png", yCase * coef, yCase * coef);
+        }
+        return tas;
+    }
+}
@@ -10,8 +10,8 @@ public abstract class Case implements Affichable {
     // Position de la case sur le plateau (en pixels)
     protected int x, y;
     
-    // Abeille pollinisatrice associée à la case (null si aucune abeille)
-    protected Abeille pollinisatrice = null;
+    // Identifiant de l'abeille pollinisatrice associée à la case (-1 si aucune abeille)
+    protected volatile int pollinisatrice = -1;
     
     // Quantité de pollen disponible sur la case
     protected int qtt = 0;
@@ -63,21 +63,36 @@ public abstract class Case implements Affichable {
     /**
      * Méthode permettant de récupérer l'abeille pollinisatrice associée à cette case.
      * 
-     * @return L'abeille pollinisatrice (null si aucune abeille associée).
+     * @return L'identifiant de l'abeille pollinisatrice dans l'essaim (-1 si aucune abeille associée).
      */
-    public Abeille getPollinisatrice(){
+    public int getPollinisatrice(){
         return pollinisatrice;
     }
 
     /**
      * Méthode permettant de définir l'abeille pollinisatrice associée à cette case.
      * 
-     * @param a L'abeille à associer à la case.
+     * @param a L'identifiant de l'abeille à associer à la case.
      */
-    public void setPollinisatrice(Abeille a){
+    public void setPollinisatrice(int a){
         pollinisatrice = a;
     }
 
+    /**
+     * Associe l'abeille à la case seulement si aucune abeille n'y est encore associée.
+     * L'opération est atomique, deux abeilles ne peuvent donc pas revendiquer la même case en même temps.
+     * 
+     * @param a L'identifiant de l'abeille qui revendique la case.
+     * @return true si la case a été associée à l'abeille.
+     */
+    public synchronized boolean revendique(int a){
+        if (pollinisatrice != -1) {
+            return false;
+        }
+        pollinisatrice = a;
+        return true;
+    }
+
     /**
      * Constructeur de la classe `Case`.
      * Initialise la position de la case avec les coordonnées x et y.
@@ -103,7 +118,27 @@ public abstract class Case implements Affichable {
      * @param var La valeur de l'essai.
      */
     public void setEssaie(int var){
-        System.out.println("laaa");
+        // Une case sans source n'a pas d'essais
+    }
+
+    /**
+     * Retire un essai à la case, sans vérifier qu'il en reste (peut être surchargée de façon atomique dans une sous-classe).
+     */
+    public void decrementeEssaie(){
+        setEssaie(GetEssaie() - 1);
+    }
+
+    /**
+     * Retire un essai à la case seulement s'il en reste au moins un.
+     * 
+     * @return true si un essai a été pris.
+     */
+    public boolean prendEssai(){
+        if (GetEssaie() <= 0) {
+            return false;
+        }
+        decrementeEssaie();
+        return true;
     }
 
     /**
@@ -112,7 +147,6 @@ public abstract class Case implements Affichable {
      * @return La valeur de l'essai (ici retourne 0 par défaut).
      */
     public int GetEssaie(){
-        System.out.println("err");
         return 0;
     }
 }
\ No newline at end of file
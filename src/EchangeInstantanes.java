@@ -0,0 +1,110 @@
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Échange d'instantanés entre le fil de simulation et le fil d'affichage de Swing (triple tampon).
+ *
+ * Trois instantanés circulent : celui que la simulation remplit, le dernier publié, et celui que
+ * l'affichage est en train de dessiner. Publier ou récupérer le dernier instantané se fait par un
+ * simple échange atomique de références : aucun des deux fils n'attend jamais l'autre, et l'affichage
+ * voit toujours un état complet, jamais une abeille à moitié déplacée.
+ */
+public class EchangeInstantanes {
+
+    // Instantané en cours de remplissage (appartient au fil de simulation)
+    private Instantane ecriture;
+
+    // Dernier instantané publié
+    private final AtomicReference<Instantane> publie;
+
+    // Instantané en cours de dessin (appartient au fil d'affichage)
+    private Instantane lecture;
+
+    /**
+     * Constructeur de l'échange, avec trois instantanés dimensionnés pour la simulation.
+     * L'état initial de la simulation est publié immédiatement.
+     *
+     * @param sim La simulation dont on publiera les instantanés.
+     */
+    public EchangeInstantanes(Simulation sim) {
+        int[] cellules = cellulesPollen(sim.getMap());
+        Essaim essaim = sim.getRuche().getEssaim();
+        ecriture = new Instantane(essaim, cellules);
+        publie = new AtomicReference<>(new Instantane(essaim, cellules));
+        lecture = new Instantane(essaim, cellules);
+        ecriture.prepare(essaim);
+        publie(sim);
+    }
+
+    /**
+     * Liste les cases du plateau contenant du pollen.
+     *
+     * @param map Le plateau.
+     * @return Les cases contenant du pollen (y * taille + x).
+     */
+    private static int[] cellulesPollen(Tableau map) {
+        int[] cellules = map.cellulesSources();
+        int n = 0;
+        for (int cellule : cellules) {
+            if (map.getQtt(cellule % map.getSize(), cellule / map.getSize()) > 0) {
+                cellules[n++] = cellule;
+            }
+        }
+        return Arrays.copyOf(cellules, n);
+    }
+
+    /**
+     * Mémorise les positions des abeilles avant un tick, pour l'interpolation de l'affichage.
+     * Appelée par le fil de simulation juste avant le tick suivi de `publie`.
+     *
+     * @param sim La simulation.
+     */
+    public void avantTick(Simulation sim) {
+        ecriture.prepare(sim.getRuche().getEssaim());
+    }
+
+    /**
+     * Capture l'état courant de la simulation et le publie, sans interpolation.
+     * Appelée par le fil de simulation.
+     *
+     * @param sim La simulation.
+     */
+    public void publie(Simulation sim) {
+        publie(sim, System.nanoTime(), 0);
+    }
+
+    /**
+     * Capture l'état courant de la simulation et le publie. Appelée par le fil de simulation.
+     * Les positions précédentes sont celles mémorisées par le dernier appel à `avantTick`.
+     *
+     * @param sim     La simulation.
+     * @param instant L'instant logique du tick (System.nanoTime).
+     * @param periode La durée d'un tick en nanosecondes (0 pour ne pas interpoler).
+     */
+    public void publie(Simulation sim, long instant, long periode) {
+        ecriture.capture(sim, instant, periode);
+        ecriture = publie.getAndSet(ecriture);
+    }
+
+    /**
+     * Retourne le nombre de sources de pollen de chaque instantané.
+     *
+     * @return La longueur de `Instantane.cellules`.
+     */
+    public int nbSources() {
+        return lecture.cellules.length;
+    }
+
+    /**
+     * Retourne le dernier instantané publié. Appelée par le fil d'affichage.
+     * L'instantané retourné reste valide jusqu'au prochain appel.
+     *
+     * @return Le dernier instantané publié.
+     */
+    public Instantane dernier() {
+        if (publie.get().tick > lecture.tick) {
+            lecture = publie.getAndSet(lecture);
+        }
+        return lecture;
+    }
+}
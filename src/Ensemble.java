@@ -0,0 +1,255 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Ensemble de Monte-Carlo : exécute sans interface des répliques d'une même configuration, chacune avec
+ * sa propre graine, en parallèle sur tous les cœurs, et affiche au fil des répliques la moyenne, la variance
+ * et l'intervalle de confiance des principaux résultats.
+ *
+ * Les répliques ne sont plus lancées dès que l'intervalle de confiance de chaque résultat est plus étroit
+ * que la tolérance demandée (relative à la moyenne), ou quand le nombre maximal de répliques est atteint.
+ * Les ticks pour atteindre 85% ne sont mesurés que sur les répliques qui l'atteignent : une réplique arrêtée
+ * à `maxTicks` n'a pas de durée connue, elle est seulement comptée à part (`nonAtteint`).
+ *
+ * La configuration se donne comme pour `App --headless` (voir `Parametres`) ; `parallele` et `threads` s'appliquent
+ * à chaque réplique, et les paramètres qui ne désignent qu'une simulation (`Parametres.UNE_SIMULATION`) sont refusés.
+ * Options propres à l'ensemble :
+ * - `--repliques=n` : nombre maximal de répliques (1000 par défaut) ;
+ * - `--repliquesMin=n` : nombre de répliques avant de tester l'arrêt (10 par défaut) ;
+ * - `--tolerance=t` : demi-largeur relative visée pour chaque intervalle (0,02 par défaut, soit ±2%) ;
+ * - `--confiance=c` : niveau de confiance des intervalles (0,95 par défaut) ;
+ * - `--travailleurs=n` : nombre de répliques exécutées en même temps (par défaut le nombre de processeurs).
+ *
+ * La réplique i utilise une graine dérivée de la graine de la configuration et de i, et les résultats sont
+ * comptés dans l'ordre des numéros de réplique : un ensemble se rejoue à l'identique, quel que soit l'ordre
+ * dans lequel les répliques se terminent.
+ */
+public class Ensemble {
+
+    /** Résultats suivis pour chaque réplique */
+    static final String[] RESULTATS = {"ticks", "pollenRecolte", "sourcesDecouvertes", "qualiteMoyenne"};
+
+    /**
+     * Point d'entrée de l'ensemble.
+     *
+     * @param args La configuration et les options de l'ensemble (voir la description de la classe).
+     */
+    public static void main(String[] args) {
+        int repliques = 1000, repliquesMin = 10;
+        double tolerance = 0.02, confiance = 0.95;
+        int travailleurs = Runtime.getRuntime().availableProcessors();
+        Parametres params;
+
+        try {
+            List<String> config = new ArrayList<>();
+            for (String arg : args) {
+                String valeur = arg.substring(arg.indexOf('=') + 1);
+                String cle = !arg.startsWith("--") ? "" : arg.substring(2, arg.indexOf('=') < 0 ? arg.length() : arg.indexOf('='));
+                if (arg.startsWith("--repliques=")) {
+                    repliques = Integer.parseInt(valeur);
+                } else if (arg.startsWith("--repliquesMin=")) {
+                    repliquesMin = Integer.parseInt(valeur);
+                } else if (arg.startsWith("--tolerance=")) {
+                    tolerance = Double.parseDouble(valeur);
+                } else if (arg.startsWith("--confiance=")) {
+                    confiance = Double.parseDouble(valeur);
+                } else if (arg.startsWith("--travailleurs=")) {
+                    travailleurs = Integer.parseInt(valeur);
+                } else if (Arrays.asList(Parametres.UNE_SIMULATION).contains(cle)) {
+                    throw new IllegalArgumentException("Paramètre non pris en charge par l'ensemble : " + cle);
+                } else {
+                    config.add(arg);
+                }
+            }
+            if (repliques < 2 || repliquesMin < 2) {
+                throw new IllegalArgumentException("Il faut au moins deux répliques");
+            } else if (tolerance <= 0) {
+                throw new IllegalArgumentException("La tolérance doit être positive");
+            } else if (confiance <= 0 || confiance >= 1) {
+                throw new IllegalArgumentException("La confiance doit être strictement comprise entre 0 et 1");
+            } else if (travailleurs < 1) {
+                throw new IllegalArgumentException("Il faut au moins un travailleur");
+            }
+            params = Parametres.depuisArguments(config.toArray(new String[0]));
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+            return;
+        }
+
+        System.err.println("Graine : " + params.getGraine());
+        execute(params, repliques, repliquesMin, tolerance, confiance, travailleurs);
+    }
+
+    /**
+     * Exécute les répliques et affiche une ligne CSV de statistiques après chacune d'elles.
+     *
+     * @param params       La configuration commune.
+     * @param repliques    Le nombre maximal de répliques.
+     * @param repliquesMin Le nombre de répliques avant de tester l'arrêt.
+     * @param tolerance    La demi-largeur relative visée pour chaque intervalle.
+     * @param confiance    Le niveau de confiance des intervalles.
+     * @param travailleurs Le nombre de répliques exécutées en même temps.
+     * @return Les statistiques de chaque résultat, dans l'ordre de `RESULTATS` (les ticks sur les seules
+     *         répliques ayant atteint l'objectif).
+     */
+    static Statistiques[] execute(Parametres params, int repliques, int repliquesMin, double tolerance,
+                                  double confiance, int travailleurs) {
+        double z = Statistiques.quantileNormal(confiance);
+        Statistiques[] stats = new Statistiques[RESULTATS.length];
+        for (int k = 0; k < stats.length; k++) {
+            stats[k] = new Statistiques();
+        }
+        int nonAtteint = 0;
+
+        StringBuilder entete = new StringBuilder("repliques");
+        for (String r : RESULTATS) {
+            entete.append(',').append(r).append("Moyenne,").append(r).append("Variance,")
+                  .append(r).append("IcBas,").append(r).append("IcHaut");
+        }
+        System.out.println(entete.append(",nonAtteint"));
+
+        ExecutorService executeur = Executors.newFixedThreadPool(travailleurs);
+        CompletionService<double[]> resultats = new ExecutorCompletionService<>(executeur);
+        Map<Future<double[]>, Integer> numeros = new HashMap<>();
+        // Résultats arrivés avant ceux des répliques de numéro inférieur
+        Map<Integer, double[]> enAttente = new HashMap<>();
+        int lancees = 0, terminees = 0;
+        boolean precis = false;
+
+        try {
+            // Une réplique par travailleur, puis une nouvelle à chaque réplique terminée
+            while (lancees < Math.min(travailleurs, repliques)) {
+                int i = lancees++;
+                numeros.put(resultats.submit(() -> replique(params, i)), i);
+            }
+
+            // Les résultats sont comptés dans l'ordre des numéros de réplique, et non dans l'ordre de fin :
+            // les répliques courtes finissant les premières, l'arrêt fausserait sinon la moyenne des ticks
+            while (!precis && terminees < lancees) {
+                Future<double[]> f = resultats.take();
+                enAttente.put(numeros.remove(f), f.get());
+
+                double[] r;
+                while (!precis && (r = enAttente.remove(terminees)) != null) {
+                    terminees++;
+                    boolean atteint = r[RESULTATS.length] != 0;
+                    for (int k = 0; k < stats.length; k++) {
+                        if (k != 0 || atteint) {
+                            stats[k].ajoute(r[k]);
+                        }
+                    }
+                    if (!atteint) {
+                        nonAtteint++;
+                    }
+                    System.out.println(ligne(terminees, stats, z, nonAtteint));
+                    precis = terminees >= repliquesMin && assezPrecis(stats, z, tolerance);
+                }
+                if (!precis && lancees < repliques) {
+                    int i = lancees++;
+                    numeros.put(resultats.submit(() -> replique(params, i)), i);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            // Les répliques encore en cours, de numéros supérieurs, ne changeraient plus la réponse
+            executeur.shutdownNow();
+        }
+
+        System.err.println((precis ? "Tolérance atteinte" : "Nombre maximal de répliques atteint")
+                + " après " + terminees + " répliques");
+        if (nonAtteint > 0) {
+            System.err.println(nonAtteint + " répliques n'ont pas atteint 85% en " + params.getMaxTicks() + " ticks");
+        }
+        return stats;
+    }
+
+    /**
+     * Exécute une réplique.
+     *
+     * @param params La configuration commune.
+     * @param i      Le numéro de la réplique.
+     * @return Les résultats de la réplique dans l'ordre de `RESULTATS`, suivis de 1 si l'objectif est atteint (0 sinon).
+     */
+    static double[] replique(Parametres params, int i) {
+        Simulation sim = new Simulation(params.creeTableau(Alea.melange(params.getGraine() + i)));
+        sim.setEvenementiel(params.isEvenementiel());
+        ForkJoinPool pool = null;
+        if (params.isParallele()) {
+            pool = new ForkJoinPool(params.getThreads());
+            sim.setPool(pool);
+        }
+        boolean atteint;
+        try {
+            atteint = sim.execute(params.getMaxTicks());
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+
+        RegistreSources registre = sim.getRuche().getRegistre();
+        double qualite = 0;
+        for (int k = 0; k < registre.size(); k++) {
+            qualite += registre.getQualite(k);
+        }
+        return new double[] {
+            sim.getNbTicks(),
+            sim.getRuche().getPollenRecolte(),
+            registre.size(),
+            registre.size() == 0 ? 0 : qualite / registre.size(),
+            atteint ? 1 : 0
+        };
+    }
+
+    /**
+     * Indique si l'intervalle de confiance de chaque résultat est plus étroit que la tolérance
+     * (un résultat mesuré sur moins de deux répliques ne l'est jamais).
+     *
+     * @param stats     Les statistiques des résultats.
+     * @param z         Le quantile de la loi normale du niveau de confiance.
+     * @param tolerance La demi-largeur relative visée.
+     * @return true si tous les intervalles sont assez étroits.
+     */
+    static boolean assezPrecis(Statistiques[] stats, double z, double tolerance) {
+        for (Statistiques s : stats) {
+            if (s.demiLargeur(z) > tolerance * Math.abs(s.getMoyenne())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Formate une ligne CSV de statistiques.
+     *
+     * @param terminees  Le nombre de répliques terminées.
+     * @param stats      Les statistiques des résultats.
+     * @param z          Le quantile de la loi normale du niveau de confiance.
+     * @param nonAtteint Le nombre de répliques n'ayant pas atteint l'objectif.
+     * @return La ligne CSV.
+     */
+    private static String ligne(int terminees, Statistiques[] stats, double z, int nonAtteint) {
+        StringBuilder ligne = new StringBuilder().append(terminees);
+        for (Statistiques s : stats) {
+            double d = s.demiLargeur(z);
+            ligne.append(String.format(Locale.ROOT, ",%.4f,%.4f,%.4f,%.4f",
+                    s.getMoyenne(), s.getVariance(), s.getMoyenne() - d, s.getMoyenne() + d));
+        }
+        return ligne.append(',').append(nonAtteint).toString();
+    }
+}
@@ -0,0 +1,578 @@
+import java.util.function.IntPredicate;
+
+/**
+ * Stockage en colonnes de toutes les abeilles d'une ruche.
+ * Chaque attribut d'abeille (position, direction, destination, source...) est rangé dans un tableau primitif
+ * indexé par l'identifiant de l'abeille, au lieu d'un objet par abeille. Le rôle de chaque abeille est
+ * conservé dans une colonne dédiée.
+ *
+ * Les abeilles sont rangées par rôle : d'abord les éclaireuses, puis les employées, puis les observatrices.
+ * Les comportements (`mouv` des différentes classes d'abeilles) sont implémentés ici sous forme de boucles
+ * sur des plages d'identifiants ; les classes `Eclaireuses`, `Employees` et `Observatrices` ne sont plus
+ * que des vues sur une abeille de l'essaim.
+ */
+public class Essaim {
+
+    /** Rôle d'une abeille éclaireuse */
+    public static final byte ECLAIREUSE = 0;
+
+    /** Rôle d'une abeille employée */
+    public static final byte EMPLOYEE = 1;
+
+    /** Rôle d'une abeille observatrice */
+    public static final byte OBSERVATRICE = 2;
+
+    // Nombre total d'abeilles
+    private final int nb;
+
+    // Position des abeilles sur le plateau (en pixels)
+    final float[] x, y;
+
+    // Vecteur de direction des abeilles
+    final float[] dx, dy;
+
+    // Vitesse de déplacement des abeilles
+    final float[] v;
+
+    // Position de destination des abeilles (en pixels)
+    final int[] destX, destY;
+
+    // Position de la source associée en matrice (-1 si aucune)
+    final int[] xSource, ySource;
+
+    // Rôle de chaque abeille
+    final byte[] role;
+
+    // Éclaireuses : indique si l'éclaireuse a trouvé une source de pollen
+    final boolean[] aVisite;
+
+    // Employées : étape actuelle (1: recherche, 2: transmission) et pollen transporté
+    final byte[] where;
+    final int[] pollenAssocie;
+
+    // Observatrices : indique si une source est assignée à l'observatrice
+    final boolean[] aSource;
+
+    // État du flux pseudo-aléatoire de chaque abeille (voir Alea)
+    final long[] alea;
+
+    // Registre des sources découvertes, partagé par toutes les abeilles de la ruche
+    private final RegistreSources registre;
+
+    // Journal des événements (null : aucun)
+    Journal journal;
+
+    /**
+     * Constructeur de l'essaim.
+     * Toutes les abeilles sont créées à la position de la ruche, immobiles.
+     *
+     * @param nbEclaireuse   Le nombre d'éclaireuses
+     * @param nbEmployees    Le nombre d'employées
+     * @param nbObservatrice Le nombre d'observatrices
+     * @param x1             La coordonnée X de la ruche (en pixels)
+     * @param y1             La coordonnée Y de la ruche (en pixels)
+     * @param generateur     Le générateur dont sont dérivés les flux pseudo-aléatoires des abeilles
+     * @param registre       Le registre des sources découvertes de la ruche
+     */
+    Essaim(int nbEclaireuse, int nbEmployees, int nbObservatrice, int x1, int y1, Alea generateur, RegistreSources registre) {
+        this.registre = registre;
+        nb = nbEclaireuse + nbEmployees + nbObservatrice;
+        alea = generateur.flux(nb);
+        x = new float[nb];
+        y = new float[nb];
+        dx = new float[nb];
+        dy = new float[nb];
+        v = new float[nb];
+        destX = new int[nb];
+        destY = new int[nb];
+        xSource = new int[nb];
+        ySource = new int[nb];
+        role = new byte[nb];
+        aVisite = new boolean[nb];
+        where = new byte[nb];
+        pollenAssocie = new int[nb];
+        aSource = new boolean[nb];
+
+        java.util.Arrays.fill(x, x1);
+        java.util.Arrays.fill(y, y1);
+        java.util.Arrays.fill(v, Tableau.PAS_DEFAUT);
+        java.util.Arrays.fill(destX, -10);
+        java.util.Arrays.fill(destY, -10);
+        java.util.Arrays.fill(xSource, -1);
+        java.util.Arrays.fill(ySource, -1);
+        java.util.Arrays.fill(where, (byte) 1);
+        java.util.Arrays.fill(role, nbEclaireuse, nbEclaireuse + nbEmployees, EMPLOYEE);
+        java.util.Arrays.fill(role, nbEclaireuse + nbEmployees, nb, OBSERVATRICE);
+    }
+
+    /**
+     * Déplace l'abeille i en fonction de son vecteur de direction et de sa vitesse.
+     * Si le pas la mènerait au-delà de sa destination, elle se pose sur sa destination : avec un grand pas,
+     * elle ne la dépasse pas sans l'atteindre.
+     *
+     * @param i L'identifiant de l'abeille.
+     */
+    void deplace(int i) {
+        float rx = destX[i] - x[i], ry = destY[i] - y[i];
+        if (rx * rx + ry * ry <= v[i] * v[i]) {
+            x[i] = destX[i];
+            y[i] = destY[i];
+            return;
+        }
+        float ddx = dx[i], ddy = dy[i];
+        double norme = Math.sqrt(ddx * ddx + ddy * ddy);
+        x[i] += (ddx * v[i]) / norme;
+        y[i] += (ddy * v[i]) / norme;
+    }
+
+    /**
+     * Vérifie si l'abeille i a atteint sa destination (en considérant une tolérance de 5px).
+     *
+     * @param i L'identifiant de l'abeille.
+     * @return true si l'abeille est à moins de 5px de sa destination.
+     */
+    boolean atteint(int i) {
+        float px = x[i], py = y[i];
+        int cx = destX[i], cy = destY[i];
+        return (px - 5 < cx) && (px + 5 > cx) && (py - 5 < cy) && (py + 5 > cy);
+    }
+
+    /**
+     * Met à jour la destination de l'abeille i et son vecteur de direction.
+     *
+     * @param i  L'identifiant de l'abeille.
+     * @param px Coordonnée x de la destination (en pixels).
+     * @param py Coordonnée y de la destination (en pixels).
+     */
+    void goCase(int i, int px, int py) {
+        destX[i] = px;
+        destY[i] = py;
+        dx[i] = px - x[i];
+        dy[i] = py - y[i];
+    }
+
+    /**
+     * Vérifie si la case sous l'abeille i contient une fleur avec du pollen.
+     *
+     * @param i   L'identifiant de l'abeille.
+     * @param tab Le plateau de simulation.
+     * @return true si la case contient du pollen.
+     */
+    boolean isFlower(int i, Tableau tab) {
+        int x1 = (int) (x[i] / tab.getXCase());
+        int y1 = (int) (y[i] / tab.getYCase());
+        return tab.getQtt(x1, y1) > 0;
+    }
+
+    /**
+     * Parcourt les cases traversées par l'éclaireuse i entre (px, py) et sa position, strictement entre
+     * la case de départ et la case d'arrivée (celles-ci sont vérifiées au début d'un tick par `mouvEclaireuse`).
+     * À la première case portant une fleur libre, l'éclaireuse s'arrête au milieu de sa traversée de la case
+     * et la découvre au tick suivant : une fleur survolée entre deux positions n'est pas manquée,
+     * quelle que soit la longueur du pas.
+     *
+     * @param i   L'identifiant de l'éclaireuse.
+     * @param px  Coordonnée x de la position de départ (en pixels).
+     * @param py  Coordonnée y de la position de départ (en pixels).
+     * @param tab Le plateau de simulation.
+     */
+    void balaie(int i, float px, float py, Tableau tab) {
+        int xCase = tab.getXCase(), yCase = tab.getYCase();
+        int cx = (int) (px / xCase), cy = (int) (py / yCase);
+        int fx = (int) (x[i] / xCase), fy = (int) (y[i] / yCase);
+        if (cx == fx && cy == fy) {
+            return; // Cas courant : le pas ne quitte pas la case
+        }
+        double ddx = x[i] - px, ddy = y[i] - py;
+        int pasX = ddx > 0 ? 1 : ddx < 0 ? -1 : 0, pasY = ddy > 0 ? 1 : ddy < 0 ? -1 : 0;
+        int n = tab.getSize();
+        Grille g = tab.getGrille();
+
+        // Parcours des cases du segment (DDA) : bx et by sont les fractions du pas où il quitte la case courante
+        double bx = Grille.frontiere(px, ddx, cx, 0, xCase), by = Grille.frontiere(py, ddy, cy, 0, yCase);
+        while (true) {
+            double entree = Math.min(bx, by);
+            if (entree >= 1) {
+                return;
+            }
+            if (bx == entree) {
+                cx += pasX;
+                bx = Grille.frontiere(px, ddx, cx, 0, xCase);
+            }
+            if (by == entree) {
+                cy += pasY;
+                by = Grille.frontiere(py, ddy, cy, 0, yCase);
+            }
+            if ((cx == fx && cy == fy) || cx < 0 || cy < 0 || cx >= n || cy >= n) {
+                return;
+            }
+            if (g.estFleurLibre(cx, cy)) {
+                double milieu = (entree + Math.min(1, Math.min(bx, by))) / 2;
+                float mx = (float) (px + milieu * ddx), my = (float) (py + milieu * ddy);
+                if ((int) (mx / xCase) == cx && (int) (my / yCase) == cy) {
+                    x[i] = mx;
+                    y[i] = my;
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Fait avancer les éclaireuses d'identifiant compris entre debut (inclus) et fin (exclu).
+     *
+     * @param debut Le premier identifiant.
+     * @param fin   L'identifiant suivant le dernier.
+     * @param tab   Le plateau de simulation.
+     * @return Le nombre d'éclaireuses ayant trouvé une nouvelle source (et donc envoyé une employée).
+     */
+    int tickEclaireuses(int debut, int fin, Tableau tab) {
+        int n = 0;
+        for (int i = debut; i < fin; i++) {
+            if (mouvEclaireuse(i, tab)) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Fait avancer les employées d'identifiant compris entre debut (inclus) et fin (exclu).
+     *
+     * @param debut Le premier identifiant.
+     * @param fin   L'identifiant suivant le dernier.
+     * @param tab   Le plateau de simulation.
+     * @return Le nombre d'employées ayant déposé leur pollen à la ruche pendant ce tick.
+     */
+    int tickEmployees(int debut, int fin, Tableau tab) {
+        int n = 0;
+        for (int i = debut; i < fin; i++) {
+            if (mouvEmployee(i, tab)) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Fait avancer les observatrices d'identifiant compris entre debut (inclus) et fin (exclu).
+     *
+     * @param debut Le premier identifiant.
+     * @param fin   L'identifiant suivant le dernier.
+     * @param tab   Le plateau de simulation.
+     */
+    void tickObservatrices(int debut, int fin, Tableau tab) {
+        for (int i = debut; i < fin; i++) {
+            mouvObservatrice(i, tab);
+        }
+    }
+
+    /**
+     * Comportement d'une éclaireuse : elle cherche des fleurs et, si elle en trouve une, revient à la ruche
+     * et communique la position de la fleur à une employée.
+     *
+     * @param i   L'identifiant de l'éclaireuse.
+     * @param tab Le plateau de simulation.
+     * @return true si l'éclaireuse a trouvé une nouvelle source de pollen.
+     */
+    boolean mouvEclaireuse(int i, Tableau tab) {
+        boolean success = false;
+
+        // Recherche si l'éclaireuse est sur une fleur et que la fleur n'a pas été visitée
+        if ((xSource[i] == -1) && isFlower(i, tab) &&
+            (tab.getGrille().getPollinisatrice((int) (x[i] / tab.getXCase()), (int) (y[i] / tab.getYCase())) == Grille.LIBRE)) {
+            // Récupère les coordonnées de la fleur puis retourne à la ruche
+            xSource[i] = (int) (x[i] / tab.getXCase());
+            ySource[i] = (int) (y[i] / tab.getYCase());
+            goCase(i, tab.getXruche() * tab.getXCase(), tab.getYruche() * tab.getYCase());
+        }
+
+        // Si l'éclaireuse a atteint sa destination
+        if (atteint(i)) {
+            // Si l'éclaireuse est revenue à la ruche, elle communique la source trouvée
+            if (xSource[i] != -1) {
+                aVisite[i] = true;
+                success = danse(xSource[i], ySource[i]);
+
+                // Si la source est nouvelle, une employée est envoyée à la fleur
+                if (success) {
+                    if (journal != null) {
+                        journal.decouverte(i, xSource[i], ySource[i]);
+                    }
+                    int xsrc = xSource[i] * tab.getXCase();
+                    int ysrc = ySource[i] * tab.getYCase();
+                    if (tab.isVerbeux()) {
+                        System.out.println("La fleur est à x=" + xsrc + " y=" + ysrc);
+                    }
+
+                    int empl = tab.getRuche().prochaineEmployee();
+                    goCase(empl, xsrc, ysrc);
+                    xSource[empl] = xSource[i];
+                    ySource[empl] = ySource[i];
+                }
+            } else {
+                // Si l'éclaireuse n'a pas trouvé de source, elle se déplace aléatoirement
+                int px = (int) (Alea.suivant(alea, i) * tab.getSize() * tab.getXCase());
+                int py = (int) (Alea.suivant(alea, i) * tab.getSize() * tab.getYCase());
+                goCase(i, px, py);
+            }
+        }
+
+        // Si l'éclaireuse n'a pas trouvé de source, elle continue de se déplacer
+        if (!aVisite[i]) {
+            float px = x[i], py = y[i];
+            deplace(i);
+            if (xSource[i] == -1) {
+                balaie(i, px, py, tab);
+            }
+        }
+
+        return success;
+    }
+
+    /**
+     * Comportement d'une employée : elle va à sa source, cherche une meilleure source dans le voisinage,
+     * revient à la ruche, danse et dépose son pollen.
+     *
+     * @param i   L'identifiant de l'employée.
+     * @param tab Le plateau de simulation.
+     * @return true si l'employée a déposé son pollen à la ruche pendant ce tick.
+     */
+    boolean mouvEmployee(int i, Tableau tab) {
+        if (!atteint(i)) {
+            deplace(i);
+            return false;
+        }
+
+        if (where[i] == 1) {
+            // Recherche les meilleures sources de pollen puis retourne à la ruche
+            checkVoisins(i, tab);
+            goCase(i, tab.getXruche() * tab.getXCase(), tab.getYruche() * tab.getYCase());
+            where[i] = 2;
+        } else if (where[i] == 2) {
+            // Transmet les coordonnées de la source puis donne le pollen récolté à la ruche
+            danse(xSource[i], ySource[i]);
+            givePollen(i, pollenAssocie[i], tab);
+
+            // Retourne à la source de pollen
+            goCase(i, xSource[i] * tab.getXCase(), ySource[i] * tab.getYCase());
+            where[i] = 3;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Cherche, dans un voisinage de (2r+1)x(2r+1) cases autour de l'employée i (r : rayon du plateau,
+     * 3 par défaut), la source non occupée ayant le plus de pollen, puis l'associe à l'employée.
+     * La recherche passe par l'index des maximums de la grille (`Grille.meilleureLibre`), qui retient
+     * la même source qu'un parcours de toutes les cases du voisinage.
+     *
+     * @param i   L'identifiant de l'employée.
+     * @param tab Le plateau de simulation.
+     */
+    void checkVoisins(int i, Tableau tab) {
+        Grille g = tab.getGrille();
+        int n = tab.getSize(), r = tab.getRayon();
+        float fy = y[i] / tab.getYCase();
+        float fx = x[i] / tab.getXCase();
+        int best, bx, by;
+
+        while (true) {
+            best = pollenAssocie[i];
+            bx = xSource[i];
+            by = ySource[i];
+
+            int c = g.meilleureLibre((int) (fy - r), (int) (fy + r), (int) (fx - r), (int) (fx + r), best);
+            if (c >= 0) {
+                bx = c % n;
+                by = c / n;
+                best = g.getQtt(bx, by);
+            }
+
+            if (best == pollenAssocie[i]) {
+                // Pas de meilleure source : l'employée garde la sienne
+                g.setPollinisatrice(bx, by, i);
+                break;
+            }
+            if (g.revendique(bx, by, i)) {
+                break;
+            }
+            // Une autre employée vient de prendre cette source (mode parallèle) : on recommence la recherche
+        }
+        pollenAssocie[i] = best;
+        xSource[i] = bx;
+        ySource[i] = by;
+        if (journal != null) {
+            journal.revendication(i, bx, by);
+        }
+
+        // Met à jour les essais de la source
+        g.decrementeEssais(bx, by);
+    }
+
+    /**
+     * Dépose le pollen de l'employée i à la ruche et met à jour la qualité connue de sa source.
+     *
+     * @param i      L'identifiant de l'employée.
+     * @param qttpol La quantité de pollen transportée.
+     * @param tab    Le plateau de simulation.
+     */
+    void givePollen(int i, int qttpol, Tableau tab) {
+        float pollenToGive;
+
+        // Retrouve la source de pollen associée et lui attribue un facteur de variation
+        int k = registre.indice(xSource[i], ySource[i]);
+        if (k >= 0) {
+            pollenToGive = (float) (Alea.suivant(alea, i));
+            if (pollenToGive < 0.15)
+                pollenToGive += 1;
+            else
+                pollenToGive = 0.85f;
+            registre.setQualite(k, (int) (qttpol * pollenToGive));
+        }
+
+        // Ajoute le pollen à la ruche
+        tab.getRuche().ajoutePollen(qttpol);
+        if (journal != null) {
+            journal.depot(i, qttpol);
+        }
+    }
+
+    /**
+     * Comportement d'une observatrice : elle choisit une source, s'y rend, et réactive une éclaireuse
+     * si la source n'a plus d'essais disponibles.
+     *
+     * @param i   L'identifiant de l'observatrice.
+     * @param tab Le plateau de simulation.
+     */
+    void mouvObservatrice(int i, Tableau tab) {
+        if (!aSource[i]) {
+            choisiSrc(i, tab);
+        } else if (atteint(i)) {
+            if (tab.getGrille().getEssais(xSource[i], ySource[i]) == 0) {
+                aSource[i] = false; // Enlève la source
+                Ruche r = tab.getRuche();
+
+                // Réactive une éclaireuse et lui donne de nouvelles coordonnées aléatoires
+                int ecl = r.prochaineEclaireuse();
+                xSource[ecl] = -1;
+                aVisite[ecl] = false;
+                // (tirage dans le flux de l'observatrice, qui est l'abeille active)
+                int px = (int) (Alea.suivant(alea, i) * tab.getSize() * tab.getXCase());
+                int py = (int) (Alea.suivant(alea, i) * tab.getSize() * tab.getYCase());
+                goCase(ecl, px, py);
+
+                if (journal != null) {
+                    journal.epuisement(i, xSource[i], ySource[i], ecl);
+                }
+                if (tab.isVerbeux()) {
+                    System.out.println("L'observatrice parle à " + ecl + " car la source est pleine");
+                }
+            }
+        } else {
+            deplace(i);
+        }
+    }
+
+    /**
+     * Choisit une source encore disponible pour l'observatrice i, selon la règle du plateau :
+     * - par défaut, la source de meilleure qualité, chaque source disponible n'étant considérée qu'avec
+     *   une probabilité de 85% ; les sources sont parcourues par qualité décroissante dans le registre :
+     *   la première acceptée est la meilleure des sources acceptées, comme avec un parcours complet ;
+     * - en mode roulette, une source tirée avec une probabilité proportionnelle à sa qualité.
+     *
+     * @param i   L'identifiant de l'observatrice.
+     * @param tab Le plateau de simulation.
+     */
+    void choisiSrc(int i, Tableau tab) {
+        Grille g = tab.getGrille();
+
+        // Les sources sans essai restant n'en retrouveront jamais : elles sont retirées du registre
+        IntPredicate epuise = k -> g.getEssais(registre.getX(k), registre.getY(k)) <= 0;
+        int indice = tab.isRoulette()
+                ? registre.tire(epuise, () -> Alea.suivant(alea, i))
+                : registre.meilleure(epuise, k -> Alea.suivant(alea, i) < 0.85);
+
+        // Prend un essai sur la source (échoue si une autre observatrice a pris le dernier entre-temps)
+        if (indice >= 0 && g.prendEssai(registre.getX(indice), registre.getY(indice))) {
+            if (g.getEssais(registre.getX(indice), registre.getY(indice)) <= 0) {
+                registre.retire(indice); // Dernier essai pris : la source sort du registre tout de suite
+            }
+            int max = registre.getQualite(indice);
+            xSource[i] = registre.getX(indice);
+            ySource[i] = registre.getY(indice);
+            aSource[i] = true;
+            if (journal != null) {
+                journal.revendication(i, xSource[i], ySource[i]);
+            }
+
+            if (tab.isVerbeux()) {
+                System.out.println("L'observatrice prend la source de quantité " + max + " à (" + xSource[i] + ", " + ySource[i] + ")");
+                System.out.println("Essais restants : " + g.getEssais(xSource[i], ySource[i]));
+            }
+
+            goCase(i, xSource[i] * tab.getXCase(), ySource[i] * tab.getYCase());
+        }
+    }
+
+    /**
+     * Effectue une danse pour informer les observatrices de la position d'une source de nourriture.
+     * Si la source est nouvelle, elle est ajoutée à la liste des sources observées.
+     *
+     * @param mx Coordonnée x de la source (en matrice).
+     * @param my Coordonnée y de la source (en matrice).
+     * @return true si la source a été ajoutée, false si elle était déjà présente.
+     */
+    boolean danse(int mx, int my) {
+        return registre.enregistre(mx, my) >= 0;
+    }
+
+    /**
+     * Retourne le registre des sources découvertes par l'essaim.
+     *
+     * @return Le registre des sources.
+     */
+    RegistreSources getRegistre() {
+        return registre;
+    }
+
+    /**
+     * Retourne le nombre total d'abeilles de l'essaim.
+     *
+     * @return Le nombre d'abeilles.
+     */
+    public int size() {
+        return nb;
+    }
+
+    /**
+     * Retourne le rôle d'une abeille.
+     *
+     * @param i L'identifiant de l'abeille.
+     * @return `ECLAIREUSE`, `EMPLOYEE` ou `OBSERVATRICE`.
+     */
+    public byte getRole(int i) {
+        return role[i];
+    }
+
+    /**
+     * Retourne la position x d'une abeille.
+     *
+     * @param i L'identifiant de l'abeille.
+     * @return La position x (en pixels).
+     */
+    public float getX(int i) {
+        return x[i];
+    }
+
+    /**
+     * Retourne la position y d'une abeille.
+     *
+     * @param i L'identifiant de l'abeille.
+     * @return La position y (en pixels).
+     */
+    public float getY(int i) {
+        return y[i];
+    }
+}
@@ -0,0 +1,627 @@
+import java.util.Arrays;
+
+/**
+ * Moteur à événements de la simulation (paramètre `evenementiel`) : au lieu de faire avancer chaque abeille
+ * à chaque tick, il calcule à l'avance le tick de la prochaine action de chaque abeille et ne fait agir
+ * les abeilles qu'à ces ticks-là.
+ *
+ * Entre deux actions, une abeille vole en ligne droite à vitesse constante : sa position après k ticks
+ * de vol est celle de départ plus k pas (le pas de `Essaim.deplace`), jusqu'au tick de son arrivée
+ * (`Essaim.atteint`, ou posée sur sa destination), qui se calcule directement. Seules sont programmées :
+ * - l'arrivée d'une employée ou d'une observatrice à sa destination ;
+ * - l'arrivée d'une éclaireuse, ou le premier tick où elle survole une fleur libre (`Essaim.balaie`) : les cases survolées
+ *   sont parcourues dans l'ordre le long du vol, et les carrés de la `Grille` sans fleur libre sont sautés d'un coup
+ *   (une fleur revendiquée ne redevient jamais libre, une fleur trouvée à l'avance est vérifiée au tick prévu) ;
+ * - le choix d'une source par une observatrice, à chaque tick tant qu'elle n'en trouve pas, ou au premier
+ *   tick où une employée rapporte une qualité si le registre n'a plus aucune source candidate ;
+ * - la vérification des visites restantes par une observatrice arrivée à sa source, chaque fois
+ *   qu'une employée ou une observatrice modifie les visites de cette source.
+ *
+ * Les événements sont rangés dans un tas par tick puis par identifiant : comme les abeilles sont rangées
+ * par rôle, un tick traite ses événements dans le même ordre que `Simulation.tick` (éclaireuses, employées,
+ * puis observatrices, chacune par identifiant croissant) et les abeilles font exactement les mêmes actions
+ * (`Essaim.mouvEclaireuse`, `mouvEmployee`, `mouvObservatrice`). Les positions, elles, sont calculées
+ * à la demande (`synchronise`) : elles diffèrent des positions d'un tick par tick de l'arrondi des
+ * additions successives en `float`, une simulation peut donc s'écarter légèrement de celle du tick par tick
+ * de même graine (mêmes comportements, au pas de vol près).
+ *
+ * Le moteur est séquentiel. Il se construit depuis l'état de n'importe quel essaim, et donc aussi
+ * depuis une simulation reprise d'une sauvegarde.
+ */
+class Evenements {
+
+    // Nombre de pas au-delà duquel une abeille n'arrive jamais (direction indéterminée)
+    private static final long JAMAIS = Long.MAX_VALUE;
+
+    private final Essaim essaim;
+    private final Tableau tab;
+    private final Grille grille;
+    private final Ruche ruche;
+    private final RegistreSources registre;
+
+    // Identifiant de la première observatrice
+    private final int base;
+
+    // Fin de la plage des observatrices actives au dernier tick traité
+    private int finObservatrices;
+
+    // Vol en cours de chaque abeille : position au tick de départ, pas par tick, tick de départ,
+    // nombre de pas jusqu'à l'arrêt et position d'arrêt (l'abeille y reste ensuite immobile)
+    private final float[] ox, oy;
+    private final double[] sx, sy;
+    private final long[] depart, arrivee;
+    private final float[] arretX, arretY;
+
+    // Tick du prochain événement de chaque abeille (-1 : aucun) ; les entrées du tas qui ne
+    // correspondent plus à ce tick sont ignorées
+    private final long[] prochain;
+    private final Tas tas = new Tas();
+
+    // Observatrices sans source qui attendent que le registre ait de nouveau une source candidate
+    private int[] dormeuses = new int[16];
+    private int nbDormeuses = 0;
+
+    // Une employée a rapporté une qualité pendant le tick en cours
+    private boolean registreModifie = false;
+
+    // Observatrices arrivées à une source et attendant que ses visites changent : liste chaînée
+    // par source du registre (première observatrice, puis suivante de chaque observatrice ; -1 : fin)
+    private final int[] premiere, suivante;
+
+    /**
+     * Construit le moteur à partir de l'état courant d'une simulation (entre deux ticks)
+     * et programme la prochaine action de chaque abeille active.
+     *
+     * @param sim La simulation.
+     */
+    Evenements(Simulation sim) {
+        tab = sim.getMap();
+        ruche = sim.getRuche();
+        essaim = ruche.getEssaim();
+        grille = tab.getGrille();
+        registre = ruche.getRegistre();
+        base = ruche.getNbEclaireuse() + ruche.getNbEmployees();
+        finObservatrices = sim.getMaxObservatrice();
+
+        int nb = essaim.size();
+        ox = new float[nb];
+        oy = new float[nb];
+        sx = new double[nb];
+        sy = new double[nb];
+        depart = new long[nb];
+        arrivee = new long[nb];
+        arretX = new float[nb];
+        arretY = new float[nb];
+        prochain = new long[nb];
+        suivante = new int[nb];
+        premiere = new int[registre.capacite()];
+        Arrays.fill(prochain, -1);
+        Arrays.fill(premiere, -1);
+
+        long t = sim.getNbTicks();
+        for (int i = 0; i < nb; i++) {
+            boolean active = i < sim.getMaxEmployees() || (i >= base && i < finObservatrices);
+            if (active) {
+                planifie(i, t);
+            } else {
+                immobile(i, t);
+            }
+        }
+    }
+
+    /**
+     * Retourne le tick du prochain événement.
+     *
+     * @return Le tick, ou `Long.MAX_VALUE` s'il n'y a plus aucun événement.
+     */
+    long prochainTick() {
+        while (!tas.estVide()) {
+            long e = tas.min();
+            if (prochain[(int) (e & 0x7FFFFFFF)] == e >>> 31) {
+                return e >>> 31;
+            }
+            tas.retire(); // Événement remplacé par un autre
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Traite les événements d'un tick pour les abeilles d'un rôle, dans l'ordre des identifiants.
+     * Les phases d'un tick doivent être traitées dans l'ordre des rôles, comme dans `Simulation.tick`.
+     *
+     * @param role Le rôle des abeilles.
+     * @param fin  L'identifiant suivant la dernière abeille active du rôle.
+     * @param t    Le tick.
+     * @return Le nombre d'abeilles ayant réussi leur objectif (comme `Essaim.tickEclaireuses` et `tickEmployees`).
+     */
+    int phase(byte role, int fin, long t) {
+        if (role == Essaim.OBSERVATRICE) {
+            reveille(fin, t);
+        }
+        int n = 0;
+        while (prochainTick() == t && (int) (tas.min() & 0x7FFFFFFF) < fin) {
+            int i = (int) (tas.retire() & 0x7FFFFFFF);
+            prochain[i] = -1;
+            if (role == Essaim.ECLAIREUSE) {
+                n += eclaireuse(i, t);
+            } else if (role == Essaim.EMPLOYEE) {
+                n += employee(i, t);
+            } else {
+                observatrice(i, t);
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Programme au tick t les observatrices devenues actives pendant la phase des employées, et les
+     * observatrices endormies si une employée a rapporté une qualité et qu'il y a une source candidate.
+     */
+    private void reveille(int fin, long t) {
+        for (int i = finObservatrices; i < fin; i++) {
+            programme(i, t);
+        }
+        finObservatrices = Math.max(finObservatrices, fin);
+
+        if (registreModifie && nbDormeuses > 0 && registre.candidates() > 0) {
+            for (int k = 0; k < nbDormeuses; k++) {
+                programme(dormeuses[k], t);
+            }
+            nbDormeuses = 0;
+        }
+        registreModifie = false;
+    }
+
+    /**
+     * Action d'une éclaireuse : arrivée à destination ou survol d'une fleur.
+     *
+     * @return 1 si l'éclaireuse a trouvé une nouvelle source (et envoyé une employée), 0 sinon.
+     */
+    private int eclaireuse(int i, long t) {
+        place(i, t - 1);
+        int employee = ruche.getIndiceEmployees(); // Employée envoyée si la source est nouvelle
+        boolean nouvelle = essaim.mouvEclaireuse(i, tab);
+        if (nouvelle) {
+            planifie(employee, t - 1); // L'employée part pendant ce tick
+        }
+        planifie(i, t);
+        return nouvelle ? 1 : 0;
+    }
+
+    /**
+     * Action d'une employée arrivée à destination.
+     *
+     * @return 1 si l'employée a déposé son pollen à la ruche, 0 sinon.
+     */
+    private int employee(int i, long t) {
+        place(i, t - 1);
+        boolean recherche = essaim.where[i] == 1;
+        boolean depot = essaim.mouvEmployee(i, tab);
+        if (recherche) {
+            visitesModifiees(essaim.xSource[i], essaim.ySource[i], i, t);
+        }
+        if (depot) {
+            registreModifie = true;
+        }
+        planifie(i, t);
+        return depot ? 1 : 0;
+    }
+
+    /**
+     * Action d'une observatrice : choix d'une source, ou vérification des visites restantes de sa source.
+     */
+    private void observatrice(int i, long t) {
+        place(i, t - 1);
+        if (!essaim.aSource[i]) {
+            essaim.mouvObservatrice(i, tab);
+            if (essaim.aSource[i]) {
+                visitesModifiees(essaim.xSource[i], essaim.ySource[i], i, t);
+            }
+        } else if (grille.getEssais(essaim.xSource[i], essaim.ySource[i]) == 0) {
+            // L'observatrice abandonne sa source et réactive une éclaireuse (après sa phase de ce tick)
+            int eclaireuse = ruche.getIndiceEclaireuse();
+            place(eclaireuse, t);
+            essaim.mouvObservatrice(i, tab);
+            planifie(eclaireuse, t);
+        } else {
+            essaim.mouvObservatrice(i, tab);
+        }
+        planifie(i, t);
+    }
+
+    /**
+     * Programme la vérification des observatrices qui attendent à une source dont les visites viennent
+     * de changer : celles qui agissent après l'abeille j dans ce tick la vérifient dans ce tick,
+     * les autres au tick suivant.
+     *
+     * @param mx Coordonnée x de la source (en matrice).
+     * @param my Coordonnée y de la source (en matrice).
+     * @param j  L'abeille qui a modifié les visites.
+     * @param t  Le tick en cours.
+     */
+    private void visitesModifiees(int mx, int my, int j, long t) {
+        int k = registre.indice(mx, my);
+        if (k < 0) {
+            return;
+        }
+        for (int w = premiere[k]; w >= 0; w = suivante[w]) {
+            programme(w, w > j ? t : t + 1);
+        }
+        premiere[k] = -1;
+    }
+
+    /**
+     * Calcule, à partir de l'état de l'abeille i après le tick t, son vol et le tick de sa prochaine action.
+     *
+     * @param i L'identifiant de l'abeille.
+     * @param t Le dernier tick pendant lequel l'abeille a agi (ou aurait pu agir).
+     */
+    private void planifie(int i, long t) {
+        depart[i] = t;
+        ox[i] = essaim.x[i];
+        oy[i] = essaim.y[i];
+        float ddx = essaim.dx[i], ddy = essaim.dy[i];
+        double norme = Math.sqrt(ddx * ddx + ddy * ddy);
+        sx[i] = (ddx * essaim.v[i]) / norme;
+        sy[i] = (ddy * essaim.v[i]) / norme;
+
+        byte role = essaim.role[i];
+        if (role == Essaim.ECLAIREUSE) {
+            if (essaim.aVisite[i]) {
+                arrete(i, 0, ox[i], oy[i]); // Revenue à la ruche, elle n'agit plus tant qu'elle n'est pas réactivée
+                return;
+            }
+            long k = pasArrivee(i);
+            long fleur = k >= 0 && essaim.xSource[i] == -1 ? pasFleur(i, k) : -1;
+            if (fleur >= 0) {
+                programme(i, t + 1 + fleur);
+            } else if (k >= 0) {
+                programme(i, t + 1 + k);
+            }
+        } else if (role == Essaim.EMPLOYEE) {
+            long k = pasArrivee(i);
+            // De retour à sa source, une employée n'agit plus
+            if (k >= 0 && essaim.where[i] != 3) {
+                programme(i, t + 1 + k);
+            }
+        } else if (!essaim.aSource[i]) {
+            arrete(i, 0, ox[i], oy[i]);
+            if (registre.candidates() > 0) {
+                programme(i, t + 1);
+            } else {
+                dort(i);
+            }
+        } else {
+            long k = pasArrivee(i);
+            if (k > 0) {
+                programme(i, t + 1 + k);
+            } else if (k == 0) {
+                // À sa source : attend qu'il n'y ait plus de visites (elle n'en aura plus jamais si elles sont négatives)
+                int essais = grille.getEssais(essaim.xSource[i], essaim.ySource[i]);
+                if (essais == 0) {
+                    programme(i, t + 1);
+                } else if (essais > 0 && registre.indice(essaim.xSource[i], essaim.ySource[i]) >= 0) {
+                    int s = registre.indice(essaim.xSource[i], essaim.ySource[i]);
+                    suivante[i] = premiere[s];
+                    premiere[s] = i;
+                }
+            }
+        }
+    }
+
+    /**
+     * Immobilise une abeille inactive à sa position actuelle.
+     */
+    private void immobile(int i, long t) {
+        depart[i] = t;
+        ox[i] = essaim.x[i];
+        oy[i] = essaim.y[i];
+        arrete(i, 0, ox[i], oy[i]);
+    }
+
+    /**
+     * Fixe la fin du vol de l'abeille i : elle s'arrête en (x, y) après k pas.
+     */
+    private void arrete(int i, long k, float x, float y) {
+        arrivee[i] = k;
+        arretX[i] = x;
+        arretY[i] = y;
+    }
+
+    /**
+     * Programme la prochaine action d'une abeille (et remplace celle qui était programmée).
+     */
+    private void programme(int i, long t) {
+        if (prochain[i] != t) {
+            prochain[i] = t;
+            tas.ajoute((t << 31) | i);
+        }
+    }
+
+    /**
+     * Endort une observatrice sans source jusqu'à ce que le registre ait une source candidate.
+     */
+    private void dort(int i) {
+        if (nbDormeuses == dormeuses.length) {
+            dormeuses = Arrays.copyOf(dormeuses, nbDormeuses * 2);
+        }
+        dormeuses[nbDormeuses++] = i;
+    }
+
+    /**
+     * Place l'abeille i à sa position après le tick t.
+     */
+    private void place(int i, long t) {
+        long k = Math.max(0, t - depart[i]);
+        essaim.x[i] = posX(i, k);
+        essaim.y[i] = posY(i, k);
+    }
+
+    /**
+     * Place toutes les abeilles à leur position après le tick t (pour l'affichage ou une sauvegarde).
+     *
+     * @param t Le dernier tick effectué.
+     */
+    void synchronise(long t) {
+        for (int i = 0; i < ox.length; i++) {
+            place(i, t);
+        }
+    }
+
+    /**
+     * Position x de l'abeille i après k pas de son vol (sa position d'arrêt une fois arrêtée).
+     */
+    private float posX(int i, long k) {
+        return k >= arrivee[i] ? arretX[i] : ligneX(i, k);
+    }
+
+    /**
+     * Position y de l'abeille i après k pas de son vol (sa position d'arrêt une fois arrêtée).
+     */
+    private float posY(int i, long k) {
+        return k >= arrivee[i] ? arretY[i] : ligneY(i, k);
+    }
+
+    /**
+     * Position x de l'abeille i après k pas sur la droite de son vol, sans tenir compte de l'arrêt.
+     */
+    private float ligneX(int i, long k) {
+        return k == 0 ? ox[i] : (float) (ox[i] + k * sx[i]);
+    }
+
+    /**
+     * Position y de l'abeille i après k pas sur la droite de son vol, sans tenir compte de l'arrêt.
+     */
+    private float ligneY(int i, long k) {
+        return k == 0 ? oy[i] : (float) (oy[i] + k * sy[i]);
+    }
+
+    /**
+     * Indique si l'abeille i est arrivée après k pas (même test que `Essaim.atteint`).
+     */
+    private boolean atteintApres(int i, long k) {
+        float px = ligneX(i, k), py = ligneY(i, k);
+        int cx = essaim.destX[i], cy = essaim.destY[i];
+        return (px - 5 < cx) && (px + 5 > cx) && (py - 5 < cy) && (py + 5 > cy);
+    }
+
+    /**
+     * Calcule le nombre de pas après lequel l'abeille i arrive à destination, et fixe la fin de son vol :
+     * elle s'arrête soit au premier pas où elle est à moins de 5px de sa destination, soit sur sa destination
+     * si un pas l'amène au-delà (voir `Essaim.deplace`).
+     *
+     * @return Le nombre de pas (0 si elle est déjà arrivée), ou -1 si elle n'arrive jamais.
+     */
+    private long pasArrivee(int i) {
+        long atteint = pasAtteint(i), pose = pasPose(i);
+        if (pose >= 0 && (atteint < 0 || pose <= atteint)) {
+            arrete(i, pose, essaim.destX[i], essaim.destY[i]);
+            return pose;
+        } else if (atteint >= 0) {
+            arrete(i, atteint, ligneX(i, atteint), ligneY(i, atteint));
+            return atteint;
+        }
+        arrivee[i] = JAMAIS;
+        return -1;
+    }
+
+    /**
+     * Calcule le premier pas k (au moins 1) où l'abeille i se pose sur sa destination parce qu'elle
+     * en est, après k - 1 pas, à moins d'un pas (même test que `Essaim.deplace`).
+     *
+     * @return Le pas, ou -1 si cela n'arrive pas.
+     */
+    private long pasPose(int i) {
+        double longueur = Math.hypot(sx[i], sy[i]);
+        if (!(longueur > 0)) {
+            return -1;
+        }
+        float v = essaim.v[i];
+        double distance = Math.hypot(essaim.destX[i] - ox[i], essaim.destY[i] - oy[i]);
+        long debut = Math.max(1, (long) Math.ceil(distance / longueur) - 1);
+        for (long k = debut; k <= debut + 2; k++) {
+            float rx = essaim.destX[i] - ligneX(i, k - 1), ry = essaim.destY[i] - ligneY(i, k - 1);
+            if (rx * rx + ry * ry <= v * v) {
+                return k;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Calcule le premier pas où l'abeille i, sur la droite de son vol, est à moins de 5px de sa destination.
+     * Les intervalles de pas où chaque coordonnée est à moins de 5px de la destination sont calculés
+     * directement ; le test exact n'est fait que sur les quelques pas de leur intersection.
+     *
+     * @return Le nombre de pas (0 si elle est déjà arrivée), ou -1 si cela n'arrive pas.
+     */
+    private long pasAtteint(int i) {
+        if (atteintApres(i, 0)) {
+            return 0;
+        }
+        double[] bornes = {0, Double.POSITIVE_INFINITY};
+        if (!intervalle(ox[i], sx[i], essaim.destX[i], bornes) || !intervalle(oy[i], sy[i], essaim.destY[i], bornes)) {
+            return -1;
+        }
+        if (bornes[1] < bornes[0]) {
+            return -1;
+        }
+        long fin = bornes[1] == Double.POSITIVE_INFINITY ? (long) bornes[0] + 2 : (long) Math.ceil(bornes[1]) + 1;
+        for (long k = Math.max(0, (long) Math.floor(bornes[0]) - 1); k <= fin; k++) {
+            if (atteintApres(i, k)) {
+                return k;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Restreint l'intervalle de pas [bornes[0], bornes[1]] à ceux où une coordonnée p + k * s
+     * est à moins de 5px de c (à l'arrondi près, vérifié ensuite).
+     *
+     * @return false si la coordonnée n'est jamais à moins de 5px de c.
+     */
+    private static boolean intervalle(double p, double s, int c, double[] bornes) {
+        if (Double.isNaN(s)) {
+            return false;
+        }
+        if (s == 0) {
+            return p - 5 < c && p + 5 > c;
+        }
+        double a = (c - 5 - p) / s, b = (c + 5 - p) / s;
+        bornes[0] = Math.max(bornes[0], Math.min(a, b));
+        bornes[1] = Math.min(bornes[1], Math.max(a, b));
+        return true;
+    }
+
+    /**
+     * Cherche le premier pas, parmi les pas 0 à `fin` du vol de l'éclaireuse i, après lequel elle est au-dessus
+     * d'une fleur libre. Les cases traversées par le segment sont parcourues dans l'ordre (DDA), les carrés
+     * de la grille sans fleur libre d'un seul saut ; le test exact n'est fait qu'autour des cases à fleur libre.
+     * Comme dans `Essaim.balaie`, une fleur libre traversée entre deux pas arrête l'éclaireuse au milieu de
+     * sa traversée de la case, à la fin du pas qui la traverse.
+     *
+     * @return Le pas, ou -1 si l'éclaireuse ne survole aucune fleur libre.
+     */
+    private long pasFleur(int i, long fin) {
+        int n = tab.getSize(), xCase = tab.getXCase(), yCase = tab.getYCase();
+        double px = ox[i], py = oy[i], vx = sx[i], vy = sy[i];
+        int pasX = vx > 0 ? 1 : vx < 0 ? -1 : 0, pasY = vy > 0 ? 1 : vy < 0 ? -1 : 0;
+
+        // Longueur du vol en pas : moins de `fin` si le dernier pas se pose sur la destination
+        double limite = fin;
+        if (arretX[i] != ligneX(i, fin) || arretY[i] != ligneY(i, fin)) {
+            limite = Math.hypot(arretX[i] - px, arretY[i] - py) / Math.hypot(vx, vy);
+        }
+
+        int cx = celluleX(i, 0), cy = celluleY(i, 0);
+        double entree = 0;
+        while (entree <= limite && cx >= 0 && cy >= 0 && cx < n && cy < n) {
+            if (!grille.carreAvecFleurLibre(cx, cy)) {
+                // Saut jusqu'au bord du carré ; la case d'arrivée sur l'autre axe est calculée directement
+                double bx = Grille.frontiere(px, vx, cx >> Grille.BITS, Grille.BITS, xCase);
+                double by = Grille.frontiere(py, vy, cy >> Grille.BITS, Grille.BITS, yCase);
+                entree = Math.max(entree, Math.min(bx, by));
+                if (bx <= by) {
+                    cx = vx > 0 ? ((cx >> Grille.BITS) + 1) << Grille.BITS : ((cx >> Grille.BITS) << Grille.BITS) - 1;
+                    cy = bx < by ? (int) ((py + entree * vy) / yCase) : cy + pasY;
+                } else {
+                    cy = vy > 0 ? ((cy >> Grille.BITS) + 1) << Grille.BITS : ((cy >> Grille.BITS) << Grille.BITS) - 1;
+                    cx = (int) ((px + entree * vx) / xCase);
+                }
+                continue;
+            }
+            double bx = Grille.frontiere(px, vx, cx, 0, xCase), by = Grille.frontiere(py, vy, cy, 0, yCase);
+            double sortie = Math.min(Math.min(bx, by), limite);
+            if (grille.estFleurLibre(cx, cy)) {
+                // Un pas qui se termine dans la case, à l'arrondi près
+                long dernier = Math.min(fin, (long) sortie + 1);
+                for (long k = Math.max(0, (long) Math.ceil(entree) - 1); k <= dernier; k++) {
+                    if (celluleX(i, k) == cx && celluleY(i, k) == cy) {
+                        return k;
+                    }
+                }
+                // Sinon, la case est traversée pendant un seul pas : l'éclaireuse s'arrête au milieu de la traversée
+                long k = (long) Math.floor(entree) + 1;
+                double milieu = (entree + sortie) / 2;
+                float mx = (float) (px + milieu * vx), my = (float) (py + milieu * vy);
+                if (sortie > entree && k <= fin && (int) (mx / xCase) == cx && (int) (my / yCase) == cy) {
+                    arrete(i, k, mx, my);
+                    return k;
+                }
+            }
+            entree = Math.max(entree, Math.min(bx, by));
+            if (bx <= by) {
+                cx += pasX;
+            }
+            if (by <= bx) {
+                cy += pasY;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Retourne la colonne de la case sous l'abeille i après k pas (même calcul que `Essaim.isFlower`).
+     */
+    private int celluleX(int i, long k) {
+        return (int) (posX(i, k) / tab.getXCase());
+    }
+
+    /**
+     * Retourne la ligne de la case sous l'abeille i après k pas.
+     */
+    private int celluleY(int i, long k) {
+        return (int) (posY(i, k) / tab.getYCase());
+    }
+
+    /**
+     * Tas binaire d'entiers longs (événements codés `tick << 31 | abeille`), le plus petit en tête.
+     */
+    private static final class Tas {
+        private long[] valeurs = new long[64];
+        private int taille = 0;
+
+        boolean estVide() {
+            return taille == 0;
+        }
+
+        long min() {
+            return valeurs[0];
+        }
+
+        void ajoute(long v) {
+            if (taille == valeurs.length) {
+                valeurs = Arrays.copyOf(valeurs, taille * 2);
+            }
+            int k = taille++;
+            while (k > 0 && valeurs[(k - 1) >> 1] > v) {
+                valeurs[k] = valeurs[(k - 1) >> 1];
+                k = (k - 1) >> 1;
+            }
+            valeurs[k] = v;
+        }
+
+        long retire() {
+            long min = valeurs[0];
+            long v = valeurs[--taille];
+            int k = 0;
+            while (true) {
+                int f = 2 * k + 1;
+                if (f >= taille) {
+                    break;
+                }
+                if (f + 1 < taille && valeurs[f + 1] < valeurs[f]) {
+                    f++;
+                }
+                if (valeurs[f] >= v) {
+                    break;
+                }
+                valeurs[k] = valeurs[f];
+                k = f;
+            }
+            valeurs[k] = v;
+            return min;
+        }
+    }
+}
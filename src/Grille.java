@@ -0,0 +1,536 @@
+import java.util.Arrays;
+
+/**
+ * Stockage des cases du plateau en tableaux primitifs : quantité de pollen, visites restantes et
+ * abeille pollinisatrice de chaque case sont rangées dans trois tableaux `int[]`, sans objet par case
+ * ni appel virtuel (la classe `Source` n'est plus qu'une vue facultative sur une case).
+ *
+ * Le plateau est découpé en carrés de `COTE` x `COTE` cases, et seuls les carrés contenant au moins
+ * une source existent : chaque carré créé occupe `COTE * COTE` cases consécutives des tableaux, rangées
+ * ligne par ligne, et `debut` donne la position de chaque carré dans les tableaux (-1 : carré vide).
+ * Retrouver une case ne demande que quelques décalages de bits et deux accès à des tableaux.
+ * Un plateau de 10000 x 10000 cases portant quelques milliers de sources n'occupe ainsi que
+ * quelques mégaoctets ; un plateau dense tient dans trois tableaux de la taille du plateau.
+ *
+ * Chaque carré garde aussi la plus grande quantité de pollen de ses sources libres (`maxCarre`), tenue à jour
+ * à chaque revendication ou modification : `meilleureLibre` trouve la meilleure source libre d'une fenêtre
+ * en ignorant les carrés qui ne peuvent pas faire mieux, au lieu de parcourir toutes ses cases.
+ *
+ * Les sources sont créées pendant la construction du plateau (ou sa reprise), avant le premier tick.
+ * Pendant un tick parallèle, les modifications sont atomiques (verrous répartis par carré) ;
+ * les lectures ne prennent aucun verrou.
+ */
+public class Grille {
+
+    /** Côté d'un carré de cases (puissance de deux) */
+    static final int BITS = 4, COTE = 1 << BITS;
+
+    /** Pollinisatrice d'une source libre, et d'une case sans source */
+    static final int LIBRE = -1, VIDE = -2;
+
+    // Masque des coordonnées dans un carré, nombre de cases d'un carré et nombre de verrous (puissance de deux)
+    private static final int MASQUE = COTE - 1, CASES = COTE * COTE, VERROUS = 64;
+
+    // Taille du plateau (en nombre de cases) et nombre de carrés par ligne de carrés
+    private final int size, carresParLigne;
+
+    // Position de chaque carré dans les tableaux de cases, carrés rangés ligne par ligne (-1 : carré vide)
+    private final int[] debut;
+
+    // Cases des carrés créés : quantité de pollen, visites restantes et pollinisatrice (VIDE : pas de source),
+    // indexées par `indice` (tableaux remplacés quand un carré est créé, jamais pendant un tick)
+    int[] qtt, essais, pollinisatrice;
+
+    // Plus grande quantité de pollen des sources libres de chaque carré créé (0 si aucune), par ordre de création
+    private int[] maxCarre;
+
+    // Nombre de carrés et de sources créés
+    private int nbCarres = 0, nbSources = 0;
+
+    // Verrous des revendications et des prises d'essai
+    private final Object[] verrous = new Object[VERROUS];
+
+    /**
+     * Constructeur d'une grille sans aucune source.
+     *
+     * @param size La taille du plateau (en nombre de cases).
+     */
+    public Grille(int size) {
+        this.size = size;
+        carresParLigne = (size + MASQUE) >> BITS;
+        debut = new int[carresParLigne * carresParLigne];
+        Arrays.fill(debut, -1);
+        qtt = new int[0];
+        essais = new int[0];
+        pollinisatrice = new int[0];
+        maxCarre = new int[0];
+        for (int k = 0; k < VERROUS; k++) {
+            verrous[k] = new Object();
+        }
+    }
+
+    /**
+     * Retourne la position d'une case dans les tableaux.
+     *
+     * @param mx Coordonnée x de la case (en matrice).
+     * @param my Coordonnée y de la case (en matrice).
+     * @return La position de la case, ou -1 si son carré ne contient aucune source.
+     */
+    int indice(int mx, int my) {
+        int d = debut[(my >> BITS) * carresParLigne + (mx >> BITS)];
+        return d < 0 ? -1 : d + (((my & MASQUE) << BITS) | (mx & MASQUE));
+    }
+
+    /**
+     * Retourne la quantité de pollen d'une case.
+     *
+     * @param mx Coordonnée x de la case (en matrice).
+     * @param my Coordonnée y de la case (en matrice).
+     * @return La quantité de pollen (0 pour une case sans source).
+     */
+    int getQtt(int mx, int my) {
+        int c = indice(mx, my);
+        return c < 0 ? 0 : qtt[c];
+    }
+
+    /**
+     * Retourne le nombre de visites restantes d'une case.
+     *
+     * @param mx Coordonnée x de la case (en matrice).
+     * @param my Coordonnée y de la case (en matrice).
+     * @return Le nombre de visites restantes (0 pour une case sans source).
+     */
+    int getEssais(int mx, int my) {
+        int c = indice(mx, my);
+        return c < 0 ? 0 : essais[c];
+    }
+
+    /**
+     * Retourne l'abeille pollinisatrice d'une case.
+     *
+     * @param mx Coordonnée x de la case (en matrice).
+     * @param my Coordonnée y de la case (en matrice).
+     * @return L'identifiant de l'abeille, `LIBRE` pour une source libre, `VIDE` pour une case sans source.
+     */
+    int getPollinisatrice(int mx, int my) {
+        int c = indice(mx, my);
+        return c < 0 ? VIDE : pollinisatrice[c];
+    }
+
+    /**
+     * Indique si une case porte une source (même sans pollen).
+     *
+     * @param mx Coordonnée x de la case (en matrice).
+     * @param my Coordonnée y de la case (en matrice).
+     * @return true si la case porte une source.
+     */
+    boolean estSource(int mx, int my) {
+        return getPollinisatrice(mx, my) != VIDE;
+    }
+
+    /**
+     * Indique si une case porte une source libre ayant du pollen (une fleur qu'une éclaireuse peut signaler).
+     *
+     * @param mx Coordonnée x de la case (en matrice).
+     * @param my Coordonnée y de la case (en matrice).
+     * @return true si la case porte une source libre ayant du pollen.
+     */
+    boolean estFleurLibre(int mx, int my) {
+        int c = indice(mx, my);
+        return c >= 0 && libre(c) > 0;
+    }
+
+    /**
+     * Indique si le carré d'une case contient au moins une source libre ayant du pollen.
+     *
+     * @param mx Coordonnée x d'une case du carré (en matrice).
+     * @param my Coordonnée y d'une case du carré (en matrice).
+     * @return false si aucune case du carré n'est une fleur libre.
+     */
+    boolean carreAvecFleurLibre(int mx, int my) {
+        int d = debut[(my >> BITS) * carresParLigne + (mx >> BITS)];
+        return d >= 0 && maxCarre[d / CASES] > 0;
+    }
+
+    /**
+     * Retourne le paramètre k (réel) où une coordonnée p + k * s, en pixels, sort d'un bloc de cases
+     * de 2^bits cases de côté (cases de `taille` pixels), c'est-à-dire de l'intervalle
+     * [bloc * 2^bits * taille, (bloc + 1) * 2^bits * taille[. Sert au parcours des cases d'un segment.
+     *
+     * @return Le paramètre, ou l'infini si la coordonnée ne varie pas.
+     */
+    static double frontiere(double p, double s, int bloc, int bits, int taille) {
+        if (s > 0) {
+            return ((double) ((long) (bloc + 1) << bits) * taille - p) / s;
+        } else if (s < 0) {
+            return ((double) ((long) bloc << bits) * taille - p) / s;
+        }
+        return Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Crée une source sur une case qui n'en porte pas, en créant son carré si besoin.
+     *
+     * @param mx       Coordonnée x de la case (en matrice).
+     * @param my       Coordonnée y de la case (en matrice).
+     * @param qttpolen La quantité de pollen de la source.
+     * @param es       Le nombre de visites autorisées.
+     */
+    void ajoute(int mx, int my, int qttpolen, int es) {
+        if (mx < 0 || mx >= size || my < 0 || my >= size) {
+            throw new IndexOutOfBoundsException("Case hors du plateau : (" + mx + ", " + my + ")");
+        }
+        int k = (my >> BITS) * carresParLigne + (mx >> BITS);
+        if (debut[k] < 0) {
+            debut[k] = nouveauCarre();
+        }
+        int c = indice(mx, my);
+        if (pollinisatrice[c] != VIDE) {
+            throw new IllegalArgumentException("Case déjà occupée : (" + mx + ", " + my + ")");
+        }
+        qtt[c] = qttpolen;
+        essais[c] = es;
+        pollinisatrice[c] = LIBRE;
+        majCarre(c, 0);
+        nbSources++;
+    }
+
+    /**
+     * Réserve la place d'un nouveau carré à la fin des tableaux (agrandis par doublement).
+     *
+     * @return La position du carré dans les tableaux.
+     */
+    private int nouveauCarre() {
+        int d = nbCarres * CASES;
+        if (d == qtt.length) {
+            int n = Math.max(CASES, Math.min(2 * d, debut.length * CASES));
+            qtt = Arrays.copyOf(qtt, n);
+            essais = Arrays.copyOf(essais, n);
+            pollinisatrice = Arrays.copyOf(pollinisatrice, n);
+            Arrays.fill(pollinisatrice, d, n, VIDE);
+            maxCarre = Arrays.copyOf(maxCarre, n / CASES);
+        }
+        nbCarres++;
+        return d;
+    }
+
+    /**
+     * Modifie la quantité de pollen d'une source.
+     *
+     * @param mx Coordonnée x de la source (en matrice).
+     * @param my Coordonnée y de la source (en matrice).
+     * @param n  La nouvelle quantité de pollen.
+     */
+    void setQtt(int mx, int my, int n) {
+        int c = indiceSource(mx, my);
+        synchronized (verrou(c)) {
+            int ancienne = libre(c);
+            qtt[c] = n;
+            majCarre(c, ancienne);
+        }
+    }
+
+    /**
+     * Modifie le nombre de visites restantes d'une source.
+     *
+     * @param mx Coordonnée x de la source (en matrice).
+     * @param my Coordonnée y de la source (en matrice).
+     * @param n  Le nouveau nombre de visites restantes.
+     */
+    void setEssais(int mx, int my, int n) {
+        int c = indiceSource(mx, my);
+        synchronized (verrou(c)) {
+            essais[c] = n;
+        }
+    }
+
+    /**
+     * Associe une abeille à une source, même si une autre abeille y est déjà associée.
+     *
+     * @param mx Coordonnée x de la source (en matrice).
+     * @param my Coordonnée y de la source (en matrice).
+     * @param a  L'identifiant de l'abeille (`LIBRE` pour libérer la source).
+     */
+    void setPollinisatrice(int mx, int my, int a) {
+        int c = indiceSource(mx, my);
+        synchronized (verrou(c)) {
+            int ancienne = libre(c);
+            pollinisatrice[c] = a;
+            majCarre(c, ancienne);
+        }
+    }
+
+    /**
+     * Associe une abeille à une source seulement si aucune abeille n'y est encore associée (opération atomique).
+     *
+     * @param mx Coordonnée x de la source (en matrice).
+     * @param my Coordonnée y de la source (en matrice).
+     * @param a  L'identifiant de l'abeille qui revendique la source.
+     * @return true si la source a été associée à l'abeille.
+     */
+    boolean revendique(int mx, int my, int a) {
+        int c = indiceSource(mx, my);
+        synchronized (verrou(c)) {
+            if (pollinisatrice[c] != LIBRE) {
+                return false;
+            }
+            int ancienne = libre(c);
+            pollinisatrice[c] = a;
+            majCarre(c, ancienne);
+            return true;
+        }
+    }
+
+    /**
+     * Retire une visite à une source, sans vérifier qu'il en reste (opération atomique).
+     *
+     * @param mx Coordonnée x de la source (en matrice).
+     * @param my Coordonnée y de la source (en matrice).
+     */
+    void decrementeEssais(int mx, int my) {
+        int c = indiceSource(mx, my);
+        synchronized (verrou(c)) {
+            essais[c]--;
+        }
+    }
+
+    /**
+     * Retire une visite à une source seulement s'il en reste au moins une (opération atomique).
+     *
+     * @param mx Coordonnée x de la source (en matrice).
+     * @param my Coordonnée y de la source (en matrice).
+     * @return true si une visite a été prise.
+     */
+    boolean prendEssai(int mx, int my) {
+        int c = indiceSource(mx, my);
+        synchronized (verrou(c)) {
+            if (essais[c] <= 0) {
+                return false;
+            }
+            essais[c]--;
+            return true;
+        }
+    }
+
+    /**
+     * Retourne le verrou du carré d'une case.
+     */
+    private Object verrou(int c) {
+        return verrous[(c / CASES) & (VERROUS - 1)];
+    }
+
+    /**
+     * Retourne la quantité de pollen d'une case si elle porte une source libre, 0 sinon.
+     */
+    private int libre(int c) {
+        return pollinisatrice[c] == LIBRE ? qtt[c] : 0;
+    }
+
+    /**
+     * Met à jour le maximum du carré d'une case après une modification de la case
+     * (sous le verrou du carré, ou avant le premier tick).
+     *
+     * @param c        La position de la case.
+     * @param ancienne La valeur de `libre(c)` avant la modification.
+     */
+    private void majCarre(int c, int ancienne) {
+        int k = c / CASES, nouvelle = libre(c);
+        if (nouvelle >= maxCarre[k]) {
+            maxCarre[k] = nouvelle;
+        } else if (ancienne == maxCarre[k]) {
+            recalcule(k);
+        }
+    }
+
+    /**
+     * Recalcule le maximum d'un carré à partir de ses cases.
+     *
+     * @param k Le numéro du carré (par ordre de création).
+     */
+    private void recalcule(int k) {
+        int max = 0;
+        for (int c = k * CASES; c < (k + 1) * CASES; c++) {
+            max = Math.max(max, libre(c));
+        }
+        maxCarre[k] = max;
+    }
+
+    /**
+     * Cherche la source libre ayant le plus de pollen dans une fenêtre du plateau.
+     * La fenêtre couvre les lignes a0 à a1 et les colonnes b0 à b1 (incluses, éventuellement hors du plateau :
+     * le plateau se replie sur ses bords). En cas d'égalité, la source retenue est la première rencontrée
+     * en parcourant la fenêtre ligne par ligne depuis (b0, a0), comme avec un parcours de toutes ses cases.
+     *
+     * Les carrés vides, et ceux dont le maximum ne dépasse pas le meilleur pollen déjà trouvé, sont ignorés :
+     * seuls les carrés coupés par le bord de la fenêtre sont parcourus case par case pour trouver le maximum,
+     * puis les quelques carrés qui l'atteignent pour trouver sa première case.
+     *
+     * @param a0  La première ligne de la fenêtre.
+     * @param a1  La dernière ligne de la fenêtre.
+     * @param b0  La première colonne de la fenêtre.
+     * @param b1  La dernière colonne de la fenêtre.
+     * @param min La quantité de pollen à dépasser strictement.
+     * @return La case de la source (y * taille + x), ou -1 si aucune source libre de la fenêtre n'a plus de `min` pollen.
+     */
+    int meilleureLibre(int a0, int a1, int b0, int b1, int min) {
+        int ya = Math.floorMod(a0, size), hauteur = (int) Math.min((long) a1 - a0 + 1, size);
+        int xb = Math.floorMod(b0, size), largeur = (int) Math.min((long) b1 - b0 + 1, size);
+        if (hauteur <= 0 || largeur <= 0) {
+            return -1;
+        }
+        while (true) {
+            // Maximum de la fenêtre, découpée en au plus quatre rectangles sans repli
+            int max = min;
+            for (int r = 0; r < 2; r++) {
+                int y0 = r == 0 ? ya : 0, y1 = r == 0 ? Math.min(size, ya + hauteur) - 1 : ya + hauteur - size - 1;
+                for (int s = 0; s < 2; s++) {
+                    int x0 = s == 0 ? xb : 0, x1 = s == 0 ? Math.min(size, xb + largeur) - 1 : xb + largeur - size - 1;
+                    max = maxRectangle(x0, y0, x1, y1, max);
+                }
+            }
+            if (max == min) {
+                return -1;
+            }
+
+            // Première case libre atteignant ce maximum, dans l'ordre du parcours
+            for (int k = 0; k < hauteur; k++) {
+                int y = ya + k < size ? ya + k : ya + k - size;
+                int c = premiere(y, xb, Math.min(size, xb + largeur) - 1, max);
+                if (c < 0 && xb + largeur > size) {
+                    c = premiere(y, 0, xb + largeur - size - 1, max);
+                }
+                if (c >= 0) {
+                    return c;
+                }
+            }
+
+            // Une autre abeille vient de revendiquer ce maximum (tick parallèle) : les maximums des carrés
+            // de la fenêtre sont relus sous leur verrou, puis la recherche recommence
+            synchronise(ya, hauteur, xb, largeur);
+        }
+    }
+
+    /**
+     * Calcule la plus grande quantité de pollen des sources libres d'un rectangle sans repli.
+     *
+     * @param max La meilleure quantité déjà trouvée.
+     * @return Le maximum entre `max` et les sources libres du rectangle (vide si x1 < x0 ou y1 < y0).
+     */
+    private int maxRectangle(int x0, int y0, int x1, int y1, int max) {
+        for (int sy = y0 >> BITS; y0 <= y1 && sy <= y1 >> BITS; sy++) {
+            int cy0 = sy << BITS, ly0 = Math.max(y0, cy0), ly1 = Math.min(y1, cy0 + MASQUE);
+            boolean lignesCompletes = ly0 == cy0 && ly1 == Math.min(size - 1, cy0 + MASQUE);
+            for (int sx = x0 >> BITS; x0 <= x1 && sx <= x1 >> BITS; sx++) {
+                int d = debut[sy * carresParLigne + sx];
+                if (d < 0 || maxCarre[d / CASES] <= max) {
+                    continue;
+                }
+                int cx0 = sx << BITS, lx0 = Math.max(x0, cx0), lx1 = Math.min(x1, cx0 + MASQUE);
+                if (lignesCompletes && lx0 == cx0 && lx1 == Math.min(size - 1, cx0 + MASQUE)) {
+                    // Carré entièrement dans la fenêtre (les cases hors du plateau sont vides)
+                    max = maxCarre[d / CASES];
+                    continue;
+                }
+                for (int y = ly0; y <= ly1; y++) {
+                    for (int x = lx0; x <= lx1; x++) {
+                        int c = d + (((y & MASQUE) << BITS) | (x & MASQUE));
+                        if (pollinisatrice[c] == LIBRE && qtt[c] > max) {
+                            max = qtt[c];
+                        }
+                    }
+                }
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Cherche la première source libre ayant exactement une quantité de pollen donnée sur un morceau de ligne.
+     *
+     * @return La case de la source (y * taille + x), ou -1 si aucune.
+     */
+    private int premiere(int y, int x0, int x1, int valeur) {
+        int ligne = (y >> BITS) * carresParLigne, decalage = (y & MASQUE) << BITS;
+        for (int sx = x0 >> BITS; x0 <= x1 && sx <= x1 >> BITS; sx++) {
+            int d = debut[ligne + sx];
+            if (d < 0 || maxCarre[d / CASES] < valeur) {
+                continue;
+            }
+            for (int x = Math.max(x0, sx << BITS); x <= Math.min(x1, (sx << BITS) + MASQUE); x++) {
+                int c = d + (decalage | (x & MASQUE));
+                if (pollinisatrice[c] == LIBRE && qtt[c] == valeur) {
+                    return y * size + x;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Relit les maximums des carrés d'une fenêtre sous leur verrou, pour voir les revendications
+     * faites par les autres threads.
+     */
+    private void synchronise(int ya, int hauteur, int xb, int largeur) {
+        // Une ligne (une colonne) par carré : on saute au début du carré suivant, ou au repli du plateau
+        for (int k = 0; k < hauteur; ) {
+            int y = (ya + k) % size;
+            for (int j = 0; j < largeur; ) {
+                int x = (xb + j) % size;
+                int d = debut[(y >> BITS) * carresParLigne + (x >> BITS)];
+                if (d >= 0) {
+                    synchronized (verrou(d)) {
+                        recalcule(d / CASES);
+                    }
+                }
+                j += Math.min(COTE - (x & MASQUE), size - x);
+            }
+            k += Math.min(COTE - (y & MASQUE), size - y);
+        }
+    }
+
+    /**
+     * Retourne la position d'une case qui doit porter une source.
+     *
+     * @throws IllegalArgumentException si la case ne porte pas de source.
+     */
+    private int indiceSource(int mx, int my) {
+        int c = indice(mx, my);
+        if (c < 0 || pollinisatrice[c] == VIDE) {
+            throw new IllegalArgumentException("Pas de source sur la case (" + mx + ", " + my + ")");
+        }
+        return c;
+    }
+
+    /**
+     * Retourne le nombre de sources créées.
+     *
+     * @return Le nombre de sources.
+     */
+    int getNbSources() {
+        return nbSources;
+    }
+
+    /**
+     * Liste les cases portant une source, dans l'ordre des lignes du plateau.
+     *
+     * @return Les positions des sources (y * taille + x), en ordre croissant.
+     */
+    int[] cellules() {
+        int[] cellules = new int[nbSources];
+        int n = 0;
+        for (int k = 0; k < debut.length; k++) {
+            int d = debut[k];
+            if (d < 0) {
+                continue;
+            }
+            int x0 = (k % carresParLigne) << BITS, y0 = (k / carresParLigne) << BITS;
+            for (int p = 0; p < COTE * COTE; p++) {
+                if (pollinisatrice[d + p] != VIDE) {
+                    cellules[n++] = (y0 + (p >> BITS)) * size + x0 + (p & MASQUE);
+                }
+            }
+        }
+        Arrays.sort(cellules);
+        return cellules;
+    }
+}
@@ -0,0 +1,144 @@
+/**
+ * Histogramme de mesures (durées en nanosecondes, compteurs...) à classes log-linéaires :
+ * chaque puissance de deux est découpée en `SOUS_CLASSES` classes de même largeur, ce qui donne
+ * les centiles à 12,5% près quel que soit l'ordre de grandeur, avec un tableau de taille fixe.
+ *
+ * Enregistrer une mesure ne fait qu'incrémenter quelques compteurs, sans aucune allocation.
+ * Un histogramme n'a qu'un seul fil écrivain (le fil de simulation ou celui de l'affichage) ;
+ * les lectures faites depuis JMX pendant l'écriture sont donc approximatives, ce qui suffit à la surveillance.
+ */
+public class Histogramme implements HistogrammeMBean {
+
+    /** Nombre de classes par puissance de deux (3 bits de précision) */
+    static final int SOUS_CLASSES = 8;
+
+    // Unité des valeurs
+    private final String unite;
+
+    // Nombre de mesures de chaque classe
+    private final long[] comptes = new long[64 * SOUS_CLASSES];
+
+    // Nombre, somme et maximum des mesures
+    private long nombre, somme, max;
+
+    /**
+     * Constructeur de l'histogramme.
+     *
+     * @param unite L'unité des valeurs mesurées (affichée par JMX).
+     */
+    public Histogramme(String unite) {
+        this.unite = unite;
+    }
+
+    /**
+     * Retourne la classe d'une valeur : exacte en dessous de `SOUS_CLASSES`, puis 3 bits de précision.
+     *
+     * @param v La valeur (les valeurs négatives sont comptées comme 0).
+     * @return L'indice de la classe.
+     */
+    static int classe(long v) {
+        if (v < SOUS_CLASSES) {
+            return (int) Math.max(v, 0);
+        }
+        int e = 63 - Long.numberOfLeadingZeros(v);
+        return (e - 2) * SOUS_CLASSES + (int) ((v >>> (e - 3)) & (SOUS_CLASSES - 1));
+    }
+
+    /**
+     * Retourne la plus grande valeur d'une classe.
+     *
+     * @param c L'indice de la classe.
+     * @return La borne supérieure (incluse) de la classe.
+     */
+    static long borne(int c) {
+        if (c < SOUS_CLASSES) {
+            return c;
+        }
+        int e = c / SOUS_CLASSES + 2;
+        return ((SOUS_CLASSES + c % SOUS_CLASSES + 1L) << (e - 3)) - 1;
+    }
+
+    /**
+     * Enregistre une mesure.
+     *
+     * @param v La valeur mesurée.
+     */
+    public void enregistre(long v) {
+        comptes[classe(v)]++;
+        nombre++;
+        somme += v;
+        if (v > max) {
+            max = v;
+        }
+    }
+
+    /**
+     * Retourne la valeur sous laquelle se trouve une proportion donnée des mesures.
+     *
+     * @param p La proportion, entre 0 et 1.
+     * @return La borne supérieure de la classe contenant le centile (au plus le maximum), 0 sans mesure.
+     */
+    public long centile(double p) {
+        long n = nombre;
+        if (n == 0) {
+            return 0;
+        }
+        long rang = Math.max(1, (long) Math.ceil(p * n)), cumul = 0;
+        for (int c = 0; c < comptes.length; c++) {
+            cumul += comptes[c];
+            if (cumul >= rang) {
+                return Math.min(borne(c), max);
+            }
+        }
+        return max;
+    }
+
+    @Override
+    public String getUnite() {
+        return unite;
+    }
+
+    @Override
+    public long getNombre() {
+        return nombre;
+    }
+
+    @Override
+    public double getMoyenne() {
+        long n = nombre;
+        return n == 0 ? 0 : (double) somme / n;
+    }
+
+    @Override
+    public long getMax() {
+        return max;
+    }
+
+    @Override
+    public long getP50() {
+        return centile(0.5);
+    }
+
+    @Override
+    public long getP90() {
+        return centile(0.9);
+    }
+
+    @Override
+    public long getP99() {
+        return centile(0.99);
+    }
+
+    @Override
+    public long getP999() {
+        return centile(0.999);
+    }
+
+    @Override
+    public void reinitialise() {
+        java.util.Arrays.fill(comptes, 0);
+        nombre = 0;
+        somme = 0;
+        max = 0;
+    }
+}
@@ -0,0 +1,32 @@
+/**
+ * Interface JMX d'un `Histogramme` : attributs lus par une console JMX (jconsole, VisualVM...) pendant la simulation.
+ */
+public interface HistogrammeMBean {
+
+    /** @return L'unité des valeurs mesurées. */
+    String getUnite();
+
+    /** @return Le nombre de mesures. */
+    long getNombre();
+
+    /** @return La moyenne des mesures. */
+    double getMoyenne();
+
+    /** @return La plus grande mesure. */
+    long getMax();
+
+    /** @return La médiane des mesures. */
+    long getP50();
+
+    /** @return Le 90e centile des mesures. */
+    long getP90();
+
+    /** @return Le 99e centile des mesures. */
+    long getP99();
+
+    /** @return Le 99,9e centile des mesures. */
+    long getP999();
+
+    /** Efface toutes les mesures. */
+    void reinitialise();
+}
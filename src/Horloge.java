@@ -0,0 +1,126 @@
+/**
+ * Horloge à pas de temps fixe de la simulation.
+ * La simulation avance d'un nombre fixe de ticks par seconde (multiplié par la vitesse choisie),
+ * indépendamment de la fréquence d'affichage : si l'affichage prend du retard, plusieurs ticks
+ * sont effectués pendant la même image pour rattraper le temps perdu.
+ *
+ * Une vitesse de 0 correspond au mode illimité : la simulation avance alors autant que possible
+ * pendant le temps disponible entre deux images.
+ */
+public class Horloge {
+
+    /** Nombre de ticks par seconde à la vitesse x1 (un tick toutes les 60 ms, comme l'ancien affichage) */
+    public static final double TICKS_PAR_SECONDE = 1000.0 / 60;
+
+    /** Nombre maximal de ticks rattrapés en une image, au-delà le retard est abandonné */
+    public static final int MAX_TICKS_PAR_IMAGE = 10_000;
+
+    /** Vitesses proposées à l'utilisateur (0 = illimitée) */
+    public static final int[] VITESSES = {1, 2, 10, 100, 0};
+
+    // Multiplicateur de vitesse (0 = illimité)
+    private int vitesse = 1;
+
+    // Temps accumulé et pas encore converti en ticks (en nanosecondes)
+    private long accumulateur = 0;
+
+    // Instant du dernier appel à ticksAFaire (en nanosecondes)
+    private long dernier = System.nanoTime();
+
+    /**
+     * Calcule le nombre de ticks à effectuer depuis le dernier appel, selon la vitesse courante.
+     * En mode illimité cette méthode retourne 0 : c'est à l'appelant de faire des ticks tant que son budget le permet.
+     *
+     * @return Le nombre de ticks à effectuer pour cette image.
+     */
+    public int ticksAFaire() {
+        long maintenant = System.nanoTime();
+        long ecoule = maintenant - dernier;
+        dernier = maintenant;
+
+        if (vitesse <= 0) {
+            accumulateur = 0;
+            return 0;
+        }
+
+        accumulateur += ecoule;
+        long periode = getPeriode();
+        long n = accumulateur / periode;
+
+        if (n > MAX_TICKS_PAR_IMAGE) {
+            // Trop de retard : on abandonne le surplus plutôt que de ne plus jamais afficher
+            n = MAX_TICKS_PAR_IMAGE;
+            accumulateur = 0;
+        } else {
+            accumulateur -= n * periode;
+        }
+        return (int) n;
+    }
+
+    /**
+     * Retourne le temps accumulé depuis le dernier tick dû, qui n'a pas encore été converti en tick.
+     * L'instant logique du dernier tick effectué est donc `System.nanoTime() - getAccumule()`.
+     *
+     * @return Le temps accumulé en nanosecondes.
+     */
+    public long getAccumule() {
+        return accumulateur;
+    }
+
+    /**
+     * Oublie le temps écoulé depuis le dernier appel (utilisé pendant une pause).
+     */
+    public void reinitialise() {
+        dernier = System.nanoTime();
+        accumulateur = 0;
+    }
+
+    /**
+     * Retourne la durée d'un tick à la vitesse courante.
+     *
+     * @return La durée d'un tick en nanosecondes (0 en mode illimité).
+     */
+    public long getPeriode() {
+        if (vitesse <= 0) {
+            return 0;
+        }
+        return (long) (1e9 / (TICKS_PAR_SECONDE * vitesse));
+    }
+
+    /**
+     * Indique si l'horloge est en mode illimité.
+     *
+     * @return true si la vitesse est illimitée.
+     */
+    public boolean estIllimitee() {
+        return vitesse <= 0;
+    }
+
+    /**
+     * Retourne le multiplicateur de vitesse.
+     *
+     * @return Le multiplicateur (0 = illimité).
+     */
+    public int getVitesse() {
+        return vitesse;
+    }
+
+    /**
+     * Modifie le multiplicateur de vitesse.
+     *
+     * @param var Le nouveau multiplicateur (0 = illimité).
+     */
+    public void setVitesse(int var) {
+        vitesse = var;
+    }
+
+    /**
+     * Retourne le libellé d'une vitesse, tel qu'affiché dans l'interface.
+     *
+     * @param vitesse Le multiplicateur de vitesse.
+     * @return "x1", "x10"... ou "illimitée".
+     */
+    public static String libelle(int vitesse) {
+        return vitesse <= 0 ? "illimitée" : "x" + vitesse;
+    }
+}
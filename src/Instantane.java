@@ -0,0 +1,128 @@
+/**
+ * Copie de l'état de la simulation à la fin d'un tick, destinée à l'affichage.
+ * Le fil de simulation remplit un instantané puis le publie (voir `EchangeInstantanes`) ;
+ * le fil d'affichage de Swing ne lit jamais directement l'`Essaim` ni le plateau pendant qu'ils sont modifiés.
+ *
+ * L'instantané garde aussi les positions des abeilles avant le dernier tick, l'instant logique de ce tick
+ * et la durée d'un tick : l'affichage peut ainsi interpoler les positions entre deux ticks et rester fluide
+ * même quand la simulation avance lentement (voir `alpha`).
+ *
+ * Les tableaux sont alloués une seule fois et réutilisés d'un tick à l'autre.
+ */
+public class Instantane {
+
+    // Nombre d'abeilles
+    final int nb;
+
+    // Position des abeilles (en pixels) après et avant le dernier tick, et rôle de chaque abeille
+    final float[] x, y;
+    final float[] xPrec, yPrec;
+    final byte[] role;
+
+    // Cases contenant du pollen au départ (y * taille + x) et quantité de pollen restante sur chacune
+    final int[] cellules;
+    final int[] qttSources;
+
+    // Somme des quantités de pollen des sources, pour détecter un changement sans tout comparer
+    long sommePollen;
+
+    // Pollen récolté par la ruche
+    int pollenRecolte;
+
+    // Numéro du tick capturé (-1 : instantané encore vide)
+    long tick = -1;
+
+    // Instant logique du tick capturé (System.nanoTime) et durée d'un tick (0 : pas d'interpolation)
+    long instant;
+    long periode;
+
+    /**
+     * Constructeur d'un instantané vide, dimensionné pour une simulation.
+     *
+     * @param essaim   L'essaim à capturer.
+     * @param cellules Les cases contenant des sources de pollen (y * taille + x).
+     */
+    Instantane(Essaim essaim, int[] cellules) {
+        nb = essaim.size();
+        x = new float[nb];
+        y = new float[nb];
+        xPrec = new float[nb];
+        yPrec = new float[nb];
+        role = new byte[nb];
+        System.arraycopy(essaim.role, 0, role, 0, nb);
+        this.cellules = cellules;
+        qttSources = new int[cellules.length];
+    }
+
+    /**
+     * Copie les positions courantes des abeilles comme positions précédentes.
+     * Doit être appelée par le fil de simulation juste avant le tick qui sera capturé.
+     *
+     * @param essaim L'essaim de la simulation.
+     */
+    void prepare(Essaim essaim) {
+        System.arraycopy(essaim.x, 0, xPrec, 0, nb);
+        System.arraycopy(essaim.y, 0, yPrec, 0, nb);
+    }
+
+    /**
+     * Copie dans cet instantané l'état courant de la simulation.
+     * Doit être appelée par le fil de simulation, entre deux ticks.
+     *
+     * @param sim     La simulation à capturer.
+     * @param instant L'instant logique du tick (System.nanoTime).
+     * @param periode La durée d'un tick en nanosecondes (0 pour ne pas interpoler).
+     */
+    void capture(Simulation sim, long instant, long periode) {
+        Essaim essaim = sim.getRuche().getEssaim();
+        System.arraycopy(essaim.x, 0, x, 0, nb);
+        System.arraycopy(essaim.y, 0, y, 0, nb);
+
+        Tableau map = sim.getMap();
+        int taille = map.getSize();
+        long somme = 0;
+        for (int k = 0; k < cellules.length; k++) {
+            qttSources[k] = map.getQtt(cellules[k] % taille, cellules[k] / taille);
+            somme += qttSources[k];
+        }
+        sommePollen = somme;
+        pollenRecolte = sim.getRuche().getPollenRecolte();
+        tick = sim.getNbTicks();
+        this.instant = instant;
+        this.periode = periode;
+    }
+
+    /**
+     * Calcule le coefficient d'interpolation entre les positions précédentes (0) et courantes (1)
+     * à un instant donné : l'affichage montre l'état de la simulation avec un tick de retard,
+     * ce qui permet de toujours interpoler entre deux états connus.
+     *
+     * @param maintenant L'instant de l'affichage (System.nanoTime).
+     * @return Le coefficient d'interpolation, entre 0 et 1.
+     */
+    public float alpha(long maintenant) {
+        if (periode <= 0) {
+            return 1f;
+        }
+        float a = (float) (maintenant - instant) / periode;
+        return Math.max(0f, Math.min(1f, a));
+    }
+
+    /**
+     * Retourne le numéro du tick capturé.
+     *
+     * @return Le numéro du tick, ou -1 si l'instantané est vide.
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Retourne le pollen récolté par la ruche au moment de la capture.
+     *
+     * @return Le pollen récolté.
+     */
+    public int getPollenRecolte() {
+        return pollenRecolte;
+    }
+}
@@ -14,18 +14,38 @@ public class InterfaceSimulation extends JFrame {
                    labelVisites, labelRafraichissement, valeurPollen, valeurSources, 
                    valeurEclaireuses, valeurObservatrices, valeurVisites, erreurs;
     private JButton boutonDemarrer, boutonPause;
-    private int pollen, sources, observatrices, eclaireuses, visites, rafraichissement;
-    private boolean start, pause, invalide;
+    private int pollen, sources, observatrices, eclaireuses, visites;
+    private boolean invalide;
+
+    // Paramètres de départ (ligne de commande) puis paramètres validés au démarrage
+    private Parametres parametres;
+
+    // Lus par les fils principal et de simulation pendant que Swing les modifie
+    private volatile int vitesse = 1;
+    private volatile boolean start, pause;
     private JSlider sourcesSlider, visitesSlider;
     private JTextField textFieldPollen, textFieldObservatrices, textFieldEclaireuses;
-    private String[] optionsRafraichissement = {"x1", "x2"};
+    private String[] optionsRafraichissement = {
+        Horloge.libelle(1), Horloge.libelle(2), Horloge.libelle(10), Horloge.libelle(100), Horloge.libelle(0)
+    };
     private JComboBox<String> comboRafraichissement;
 
     /**
-     * Constructeur de l'interface graphique.
-     * Il initialise les éléments de l'interface, les valeurs par défaut et gère les événements des boutons.
+     * Constructeur de l'interface graphique avec les valeurs par défaut.
      */
     public InterfaceSimulation() {
+        this(Parametres.depuisArguments(new String[0]));
+    }
+
+    /**
+     * Constructeur de l'interface graphique.
+     * Il initialise les éléments de l'interface avec les valeurs des paramètres donnés et gère les événements des boutons.
+     * Les paramètres qui ne sont pas saisis dans l'interface (taille du plateau, dimensions...) sont conservés tels quels.
+     * 
+     * @param defaut Les paramètres de départ, par exemple lus sur la ligne de commande.
+     */
+    public InterfaceSimulation(Parametres defaut) {
+        parametres = defaut;
         setTitle("Paramètres de la Simulation");
         setSize(700, 300);
         setLayout(new GridLayout(8, 2));
@@ -38,7 +58,7 @@ public class InterfaceSimulation extends JFrame {
         labelPollen = new JLabel("Quantité de pollen :");
         textFieldPollen = new JTextField();
         labelSources = new JLabel("Nombre de sources de pollen :");
-        sourcesSlider = new JSlider(JSlider.HORIZONTAL, 1, 40, 10);
+        sourcesSlider = new JSlider(JSlider.HORIZONTAL, 1, Math.max(40, defaut.getSources()), defaut.getSources());
         sourcesSlider.setMajorTickSpacing(10);
         sourcesSlider.setMinorTickSpacing(1);
         sourcesSlider.setPaintTicks(true);
@@ -48,7 +68,7 @@ public class InterfaceSimulation extends JFrame {
         labelEclaireuses = new JLabel("Nombre d'abeilles éclaireuses :");
         textFieldEclaireuses = new JTextField();
         labelVisites = new JLabel("Nombre de visites possibles pour une source :");
-        visitesSlider = new JSlider(JSlider.HORIZONTAL, 2, 10, 5);
+        visitesSlider = new JSlider(JSlider.HORIZONTAL, Math.min(2, defaut.getVisites()), Math.max(10, defaut.getVisites()), defaut.getVisites());
         visitesSlider.setMajorTickSpacing(1);
         visitesSlider.setPaintTicks(true);
         visitesSlider.setPaintLabels(true);
@@ -59,11 +79,7 @@ public class InterfaceSimulation extends JFrame {
         ActionListener comboListener = new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                if (comboRafraichissement.getSelectedItem() == "x1") {
-                    rafraichissement = 60;
-                } else if (comboRafraichissement.getSelectedItem() == "x2") {
-                    rafraichissement = 30;
-                }
+                vitesse = Horloge.VITESSES[comboRafraichissement.getSelectedIndex()];
             }
         };
         comboRafraichissement.addActionListener(comboListener);
@@ -72,9 +88,9 @@ public class InterfaceSimulation extends JFrame {
         erreurs.setForeground(Color.RED);
 
         // Valeurs par défaut
-        textFieldPollen.setText("300");
-        textFieldObservatrices.setText("20");
-        textFieldEclaireuses.setText("30");
+        textFieldPollen.setText(defaut.getPollen() + "");
+        textFieldObservatrices.setText(defaut.getObservatrices() + "");
+        textFieldEclaireuses.setText(defaut.getEclaireuses() + "");
 
         // Initialisation des boutons et gestion des actions
         boutonDemarrer = new JButton("Démarrer la Simulation");
@@ -105,23 +121,14 @@ public class InterfaceSimulation extends JFrame {
                     if (!invalide) {
                         sources = sourcesSlider.getValue();
                         visites = visitesSlider.getValue();
-                        if (comboRafraichissement.getSelectedItem() == "x1") {
-                            rafraichissement = 60;
-                        } else if (comboRafraichissement.getSelectedItem() == "x2") {
-                            rafraichissement = 30;
-                        }
+                        vitesse = Horloge.VITESSES[comboRafraichissement.getSelectedIndex()];
 
-                        // Vérification des quantités et lancement de la simulation
-                        if (sources > pollen) {
-                            erreurs.setText("Nombre de sources > quantité de pollen");
-                        } else if (observatrices < 0) {
-                            erreurs.setText("Nombre d'observatrices négatif");
-                        } else if (eclaireuses < 0) {
-                            erreurs.setText("Nombre d'éclaireuses négatif");
-                        } else if ((eclaireuses + observatrices) > 120) {
-                            erreurs.setText("Nombre d'observatrices > 120");
-                        } else {
-                            demarrerSimulation(pollen, sources, observatrices, eclaireuses, visites, rafraichissement);
+                        // Vérification des quantités (mêmes règles qu'en ligne de commande) et lancement de la simulation
+                        try {
+                            parametres = parametres.avecColonie(pollen, sources, observatrices, eclaireuses, visites);
+                            demarrerSimulation(pollen, sources, observatrices, eclaireuses, visites, vitesse);
+                        } catch (IllegalArgumentException er) {
+                            erreurs.setText(er.getMessage());
                         }
                     }
                 } else {
@@ -177,9 +184,9 @@ public class InterfaceSimulation extends JFrame {
      * @param observatrices    Le nombre d'abeilles observatrices.
      * @param eclaireuses      Le nombre d'abeilles éclaireuses.
      * @param visites          Le nombre de visites possibles pour une source.
-     * @param rafraichissement La vitesse de simulation.
+     * @param vitesse          Le multiplicateur de vitesse de la simulation (0 = illimitée).
      */
-    private void demarrerSimulation(int pollen, int sources, int observatrices, int eclaireuses, int visites, int rafraichissement) {
+    private void demarrerSimulation(int pollen, int sources, int observatrices, int eclaireuses, int visites, int vitesse) {
         // Affichage des paramètres de la simulation
         System.out.println("Démarrage de la simulation avec les paramètres suivants :");
         System.out.println("Pollen : " + pollen);
@@ -187,7 +194,7 @@ public class InterfaceSimulation extends JFrame {
         System.out.println("Observatrices : " + observatrices);
         System.out.println("Éclaireuses : " + eclaireuses);
         System.out.println("Visites par source : " + visites);
-        System.out.println("Rafraichissement : " + rafraichissement);
+        System.out.println("Vitesse : " + Horloge.libelle(vitesse));
 
         setVisible(false);
         // Suppression des composants de la fenêtre
@@ -281,12 +288,21 @@ public class InterfaceSimulation extends JFrame {
     }
 
     /**
-     * Retourne la vitesse de rafraîchissement de la simulation.
+     * Retourne les paramètres complets de la simulation, validés au démarrage.
+     * 
+     * @return Les paramètres de la simulation.
+     */
+    public Parametres getParametres() {
+        return parametres;
+    }
+
+    /**
+     * Retourne le multiplicateur de vitesse de la simulation, modifiable pendant l'exécution.
      * 
-     * @return La vitesse de rafraîchissement.
+     * @return Le multiplicateur de vitesse (0 = illimitée).
      */
-    public int getRafraichissement() {
-        return rafraichissement;
+    public int getVitesse() {
+        return vitesse;
     }
 
     /**
@@ -0,0 +1,317 @@
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Journal binaire des événements d'une simulation, écrit au fil de l'eau dans un fichier
+ * (remplace, pour l'analyse, les messages "La fleur est à..." et "L'observatrice prend la source...").
+ *
+ * Événements enregistrés :
+ * - `DECOUVERTE` : une éclaireuse revient à la ruche avec une nouvelle source ;
+ * - `REVENDICATION` : une employée (`checkVoisins`) ou une observatrice (`choisiSrc`) prend une source ;
+ * - `DEPOT` : une employée dépose son pollen à la ruche (`givePollen`) ;
+ * - `EPUISEMENT` : une observatrice trouve sa source épuisée et réactive une éclaireuse.
+ *
+ * Format (tous les entiers sont des varints : 7 bits par octet, bit de poids fort = suite) :
+ * - en-tête : signature, version, puis la géométrie du plateau, la colonie, la graine, le tick de départ
+ *   et la liste des sources (indice de case en delta croissant, quantité de pollen, visites restantes) ;
+ * - événements : `(delta de tick << 3) | type`, puis l'abeille (delta zigzag par rapport à l'abeille
+ *   de l'événement précédent) et les champs de l'événement, les coordonnées étant aussi en delta zigzag
+ *   par rapport à celles de l'événement précédent ; un événement fait ainsi le plus souvent 3 à 5 octets ;
+ * - un événement `FIN` quand le journal est fermé normalement.
+ *
+ * Les événements sont encodés dans des lots d'octets réutilisés, qu'un fil dédié écrit dans le fichier :
+ * la simulation n'attend le disque que si le fil d'écriture a `LOTS` lots de retard.
+ * Les méthodes d'enregistrement sont synchronisées pour être appelées pendant un tick parallèle
+ * (l'ordre des événements d'un même tick dépend alors des threads).
+ */
+public class Journal implements AutoCloseable {
+
+    /** Signature du fichier ("ABEJ") et version du format */
+    static final int MAGIQUE = 0x4142454A, VERSION = 1;
+
+    /** Types d'événements */
+    static final int FIN = 0, DECOUVERTE = 1, REVENDICATION = 2, DEPOT = 3, EPUISEMENT = 4;
+
+    /** Taille d'un lot d'octets et nombre de lots */
+    static final int TAILLE_LOT = 1 << 16, LOTS = 4;
+
+    // Taille maximale d'un événement encodé
+    private static final int MAX_EVENEMENT = 10 + 4 * 5;
+
+    /**
+     * Lot d'octets encodés, passé du fil de simulation au fil d'écriture.
+     */
+    private static final class Lot {
+        final byte[] octets = new byte[TAILLE_LOT];
+        int taille = 0;
+    }
+
+    // Lot marquant la fin de l'écriture
+    private static final Lot DERNIER = new Lot();
+
+    // Fichier, fil d'écriture, lots libres et lots à écrire
+    private final OutputStream sortie;
+    private final Thread ecrivain;
+    private final BlockingQueue<Lot> libres = new ArrayBlockingQueue<>(LOTS);
+    private final BlockingQueue<Lot> pleins = new ArrayBlockingQueue<>(LOTS + 1);
+
+    // Lot en cours de remplissage
+    private Lot lot;
+
+    // Tick courant, et valeurs de l'événement précédent (pour l'encodage en delta)
+    private long tick, dernierTick;
+    private int derniereAbeille, dernierX, dernierY;
+
+    // Erreur d'écriture rencontrée par le fil d'écriture
+    private volatile IOException erreur;
+
+    /**
+     * Crée le journal et écrit son en-tête, qui décrit le plateau dans son état actuel.
+     *
+     * @param fichier Le fichier du journal, remplacé s'il existe.
+     * @param sim     La simulation journalisée (entre deux ticks).
+     * @throws IOException si le fichier ne peut pas être créé.
+     */
+    public Journal(Path fichier, Simulation sim) throws IOException {
+        sortie = new FileOutputStream(fichier.toFile());
+        for (int k = 0; k < LOTS - 1; k++) {
+            libres.add(new Lot());
+        }
+        lot = new Lot();
+        ecrivain = new Thread(this::ecrit, "journal");
+        ecrivain.setDaemon(true);
+        ecrivain.start();
+
+        Tableau tab = sim.getMap();
+        Ruche r = sim.getRuche();
+        int size = tab.getSize();
+        tick = dernierTick = sim.getNbTicks();
+        varint(MAGIQUE);
+        varint(VERSION);
+        varint(size);
+        varint(tab.getXruche());
+        varint(tab.getYruche());
+        varint(tab.getXCase());
+        varint(tab.getYCase());
+        varint(tab.getQttpolen());
+        varint(r.getNbEclaireuse());
+        varint(r.getNbEmployees());
+        varint(r.getNbObservatrice());
+        varint(tab.getAlea().getGraine());
+        varint(tick);
+
+        // Sources : nombre, puis indice de case (en delta), quantité et visites restantes de chacune
+        int[] cellules = tab.cellulesSources();
+        int nbSources = 0;
+        for (int cellule : cellules) {
+            if (tab.getQtt(cellule % size, cellule / size) > 0) {
+                cellules[nbSources++] = cellule;
+            }
+        }
+        varint(nbSources);
+        long precedente = 0;
+        for (int k = 0; k < nbSources; k++) {
+            int x = cellules[k] % size, y = cellules[k] / size;
+            place(3 * 10);
+            varint(cellules[k] - precedente);
+            varint(tab.getQtt(x, y));
+            varint(tab.getGrille().getEssais(x, y));
+            precedente = cellules[k];
+        }
+    }
+
+    /**
+     * Boucle du fil d'écriture : écrit les lots pleins dans l'ordre et les rend à la simulation.
+     */
+    private void ecrit() {
+        try {
+            while (true) {
+                Lot l = pleins.take();
+                if (l == DERNIER) {
+                    return;
+                }
+                if (erreur == null) {
+                    try {
+                        sortie.write(l.octets, 0, l.taille);
+                    } catch (IOException e) {
+                        erreur = e;
+                    }
+                }
+                l.taille = 0;
+                libres.put(l);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Indique le tick auquel appartiennent les événements suivants.
+     *
+     * @param var Le numéro du tick.
+     */
+    synchronized void debutTick(long var) {
+        tick = var;
+    }
+
+    /**
+     * Enregistre la découverte d'une nouvelle source par une éclaireuse revenue à la ruche.
+     *
+     * @param eclaireuse L'identifiant de l'éclaireuse.
+     * @param mx         Coordonnée x de la source (en matrice).
+     * @param my         Coordonnée y de la source (en matrice).
+     */
+    synchronized void decouverte(int eclaireuse, int mx, int my) {
+        evenement(DECOUVERTE, eclaireuse);
+        coordonnees(mx, my);
+    }
+
+    /**
+     * Enregistre la prise d'une source par une employée ou une observatrice.
+     *
+     * @param abeille L'identifiant de l'abeille.
+     * @param mx      Coordonnée x de la source (en matrice).
+     * @param my      Coordonnée y de la source (en matrice).
+     */
+    synchronized void revendication(int abeille, int mx, int my) {
+        evenement(REVENDICATION, abeille);
+        coordonnees(mx, my);
+    }
+
+    /**
+     * Enregistre le dépôt de pollen d'une employée à la ruche.
+     *
+     * @param employee L'identifiant de l'employée.
+     * @param qtt      La quantité de pollen déposée.
+     */
+    synchronized void depot(int employee, int qtt) {
+        evenement(DEPOT, employee);
+        varint(qtt);
+    }
+
+    /**
+     * Enregistre l'épuisement d'une source constaté par une observatrice, et l'éclaireuse qu'elle réactive.
+     *
+     * @param observatrice L'identifiant de l'observatrice.
+     * @param mx           Coordonnée x de la source (en matrice).
+     * @param my           Coordonnée y de la source (en matrice).
+     * @param eclaireuse   L'identifiant de l'éclaireuse réactivée.
+     */
+    synchronized void epuisement(int observatrice, int mx, int my, int eclaireuse) {
+        evenement(EPUISEMENT, observatrice);
+        coordonnees(mx, my);
+        varint(zigzag(eclaireuse - observatrice));
+    }
+
+    /**
+     * Écrit le début d'un événement : delta de tick et type, puis l'abeille.
+     */
+    private void evenement(int type, int abeille) {
+        place(MAX_EVENEMENT);
+        varint(((tick - dernierTick) << 3) | type);
+        varint(zigzag(abeille - derniereAbeille));
+        dernierTick = tick;
+        derniereAbeille = abeille;
+    }
+
+    /**
+     * Écrit des coordonnées de case en delta par rapport à celles de l'événement précédent.
+     */
+    private void coordonnees(int mx, int my) {
+        varint(zigzag(mx - dernierX));
+        varint(zigzag(my - dernierY));
+        dernierX = mx;
+        dernierY = my;
+    }
+
+    /**
+     * Encode un entier signé en entier positif (0, -1, 1, -2... deviennent 0, 1, 2, 3...).
+     */
+    static long zigzag(long v) {
+        return (v << 1) ^ (v >> 63);
+    }
+
+    /**
+     * Décode un entier encodé par `zigzag`.
+     */
+    static long dezigzag(long v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    /**
+     * Écrit un entier positif en varint dans le lot courant (la place doit avoir été réservée).
+     */
+    private void varint(long v) {
+        byte[] o = lot.octets;
+        int n = lot.taille;
+        while ((v & ~0x7FL) != 0) {
+            o[n++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        o[n++] = (byte) v;
+        lot.taille = n;
+    }
+
+    /**
+     * S'assure qu'il reste au moins n octets dans le lot courant, en passant le lot plein au fil d'écriture.
+     */
+    private void place(int n) {
+        if (lot.taille + n > TAILLE_LOT) {
+            envoie();
+        }
+    }
+
+    /**
+     * Passe le lot courant au fil d'écriture et prend un lot libre (en attendant si tous sont en cours d'écriture).
+     * L'attente n'est pas interrompue, pour ne perdre aucun événement : le fil d'écriture avance toujours.
+     */
+    private void envoie() {
+        boolean interrompu = false;
+        while (true) {
+            try {
+                pleins.put(lot);
+                break;
+            } catch (InterruptedException e) {
+                interrompu = true;
+            }
+        }
+        while (true) {
+            try {
+                lot = libres.take();
+                break;
+            } catch (InterruptedException e) {
+                interrompu = true;
+            }
+        }
+        if (interrompu) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Écrit l'événement de fin, attend que tous les lots soient écrits puis ferme le fichier.
+     *
+     * @throws IOException si une écriture a échoué.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        place(MAX_EVENEMENT);
+        varint(((tick - dernierTick) << 3) | FIN);
+        envoie();
+        try {
+            pleins.put(DERNIER);
+            ecrivain.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            sortie.close();
+        }
+        if (erreur != null) {
+            throw erreur;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+import java.lang.management.ManagementFactory;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Mesures d'une simulation en cours, publiées par JMX :
+ * - la durée de chaque phase du tick (éclaireuses, employées, observatrices) et du tick complet,
+ *   et la durée du dessin d'une image, dans des `Histogramme` ;
+ * - le débit en ticks par seconde et en pollen récolté par seconde (sur la dernière seconde écoulée),
+ *   et le nombre d'employées et d'observatrices actives.
+ *
+ * Les MBeans sont enregistrés sous `abeilles:type=Simulation` et `abeilles:type=Histogramme,nom=...`
+ * et peuvent être lus avec jconsole ou VisualVM pendant la simulation.
+ */
+public class Mesures implements MesuresMBean {
+
+    /** Domaine JMX des MBeans de la simulation */
+    static final String DOMAINE = "abeilles";
+
+    /** Durée de la fenêtre de calcul des débits (une seconde) */
+    static final long FENETRE = 1_000_000_000L;
+
+    // Durées des phases du tick, du tick complet et du dessin d'une image
+    final Histogramme eclaireuses = new Histogramme("ns");
+    final Histogramme employees = new Histogramme("ns");
+    final Histogramme observatrices = new Histogramme("ns");
+    final Histogramme tick = new Histogramme("ns");
+    final Histogramme dessin = new Histogramme("ns");
+
+    // Valeurs publiées (écrites par le fil de simulation)
+    private volatile long ticks;
+    private volatile double ticksParSeconde, pollenParSeconde;
+    private volatile int pollenRecolte, employeesActives, observatricesActives;
+
+    // Début de la fenêtre de calcul des débits, et valeurs à ce moment
+    private long debutFenetre = -1, ticksFenetre;
+    private int pollenFenetre;
+
+    /**
+     * Met à jour les valeurs publiées à la fin d'un tick.
+     *
+     * @param sim        La simulation.
+     * @param maintenant L'instant de fin du tick (System.nanoTime).
+     */
+    void finTick(Simulation sim, long maintenant) {
+        Ruche r = sim.getRuche();
+        long n = sim.getNbTicks();
+        int pollen = r.getPollenRecolte();
+        ticks = n;
+        pollenRecolte = pollen;
+        employeesActives = sim.getMaxEmployees() - r.getNbEclaireuse();
+        observatricesActives = sim.getMaxObservatrice() - r.getNbEclaireuse() - r.getNbEmployees();
+
+        if (debutFenetre < 0) {
+            debutFenetre = maintenant;
+            ticksFenetre = n;
+            pollenFenetre = pollen;
+        } else if (maintenant - debutFenetre >= FENETRE) {
+            double secondes = (maintenant - debutFenetre) / 1e9;
+            ticksParSeconde = (n - ticksFenetre) / secondes;
+            pollenParSeconde = (pollen - pollenFenetre) / secondes;
+            debutFenetre = maintenant;
+            ticksFenetre = n;
+            pollenFenetre = pollen;
+        }
+    }
+
+    /**
+     * Enregistre les MBeans dans le serveur JMX de la plateforme.
+     *
+     * @throws JMException si un MBean ne peut pas être enregistré (par exemple s'il l'est déjà).
+     */
+    public void enregistre() throws JMException {
+        MBeanServer serveur = ManagementFactory.getPlatformMBeanServer();
+        serveur.registerMBean(this, new ObjectName(DOMAINE + ":type=Simulation"));
+        serveur.registerMBean(eclaireuses, nom("phaseEclaireuses"));
+        serveur.registerMBean(employees, nom("phaseEmployees"));
+        serveur.registerMBean(observatrices, nom("phaseObservatrices"));
+        serveur.registerMBean(tick, nom("tick"));
+        serveur.registerMBean(dessin, nom("dessin"));
+    }
+
+    /**
+     * Retire les MBeans du serveur JMX de la plateforme.
+     */
+    public void desenregistre() {
+        MBeanServer serveur = ManagementFactory.getPlatformMBeanServer();
+        try {
+            serveur.unregisterMBean(new ObjectName(DOMAINE + ":type=Simulation"));
+            for (String h : new String[] {"phaseEclaireuses", "phaseEmployees", "phaseObservatrices", "tick", "dessin"}) {
+                serveur.unregisterMBean(nom(h));
+            }
+        } catch (JMException e) {
+            // Déjà retirés
+        }
+    }
+
+    /**
+     * Nom JMX d'un histogramme.
+     */
+    private static ObjectName nom(String histogramme) throws JMException {
+        return new ObjectName(DOMAINE + ":type=Histogramme,nom=" + histogramme);
+    }
+
+    @Override
+    public long getTicks() {
+        return ticks;
+    }
+
+    @Override
+    public double getTicksParSeconde() {
+        return ticksParSeconde;
+    }
+
+    @Override
+    public double getPollenParSeconde() {
+        return pollenParSeconde;
+    }
+
+    @Override
+    public int getPollenRecolte() {
+        return pollenRecolte;
+    }
+
+    @Override
+    public int getEmployeesActives() {
+        return employeesActives;
+    }
+
+    @Override
+    public int getObservatricesActives() {
+        return observatricesActives;
+    }
+
+    @Override
+    public void reinitialise() {
+        eclaireuses.reinitialise();
+        employees.reinitialise();
+        observatrices.reinitialise();
+        tick.reinitialise();
+        dessin.reinitialise();
+    }
+}
@@ -0,0 +1,27 @@
+/**
+ * Interface JMX de `Mesures` : état de la simulation en cours, lu par une console JMX.
+ * Les durées des phases du tick et du dessin sont publiées dans des `Histogramme` séparés.
+ */
+public interface MesuresMBean {
+
+    /** @return Le nombre de ticks effectués. */
+    long getTicks();
+
+    /** @return Le nombre de ticks par seconde, mesuré sur la dernière seconde écoulée. */
+    double getTicksParSeconde();
+
+    /** @return Le pollen récolté par seconde, mesuré sur la dernière seconde écoulée. */
+    double getPollenParSeconde();
+
+    /** @return Le pollen récolté par la ruche. */
+    int getPollenRecolte();
+
+    /** @return Le nombre d'employées actives (`maxEmployees` moins le nombre d'éclaireuses). */
+    int getEmployeesActives();
+
+    /** @return Le nombre d'observatrices actives (`maxObservatrice` moins l'indice de la première observatrice). */
+    int getObservatricesActives();
+
+    /** Efface les mesures de tous les histogrammes. */
+    void reinitialise();
+}
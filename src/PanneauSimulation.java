@@ -0,0 +1,288 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+
+/**
+ * Panneau de dessin de la simulation (rendu en mode retenu).
+ * Au lieu d'ajouter et de retirer un `JLabel` par abeille à chaque tick, tout est dessiné dans
+ * `paintComponent` à partir du dernier instantané publié par le fil de simulation (`EchangeInstantanes`) ;
+ * le modèle lui-même n'est jamais lu pendant le dessin :
+ * - le fond, la ruche et les tas de pollen sont dessinés dans une image statique allouée une seule fois ;
+ *   quand la taille d'un tas change, seule sa zone est effacée (copiée depuis le fond et la ruche)
+ *   puis les tas qui la touchent sont redessinés ;
+ * - les abeilles sont dessinées par-dessus à chaque image, avec des images déjà redimensionnées,
+ *   à une position interpolée entre les deux derniers ticks (voir `Instantane.alpha`).
+ *
+ * Si le monde est plus grand que le panneau, il est réduit pour y tenir entièrement (les images des abeilles
+ * gardent leur taille, seules leurs positions sont réduites).
+ *
+ * Au-delà de `SEUIL_SPRITES` abeilles, chaque abeille est dessinée comme un petit point de couleur
+ * écrit directement dans les pixels d'une image réutilisée, ce qui garde un affichage fluide avec
+ * des dizaines de milliers d'abeilles. Aucune image n'est allouée pendant le dessin.
+ */
+public class PanneauSimulation extends JPanel {
+
+    private static final long serialVersionUID = 1L;
+
+    /** Nombre d'abeilles au-delà duquel les abeilles sont dessinées comme des points */
+    static final int SEUIL_SPRITES = 2000;
+
+    // Couleurs des points (ARGB) : éclaireuses, employées, observatrices
+    private static final int[] COULEURS = {0xFFFFD700, 0xFFFF8C00, 0xFF8B4513};
+
+    private static final AffineTransform IDENTITE = new AffineTransform();
+
+    // Plateau à dessiner (seules ses dimensions et la position de la ruche sont lues)
+    private final Tableau map;
+
+    // Source des instantanés à dessiner
+    private final EchangeInstantanes echange;
+
+    // Dimensions du panneau
+    private final int w, h;
+
+    // Facteurs de réduction du monde vers le panneau (1 si le monde tient dans le panneau)
+    private final float ex, ey;
+
+    // Fond et ruche seuls, d'où sont recopiées les zones des tas à effacer
+    private final BufferedImage base;
+
+    // Fond, ruche et tas de pollen, et somme des quantités de pollen pour laquelle l'image a été faite (-1 : à refaire)
+    private final BufferedImage statique;
+    private long sommeStatique = -1;
+
+    // Coefficient de taille de chaque tas dessiné dans l'image statique (0 : pas de tas)
+    private final int[] coefs;
+
+    // Images des abeilles déjà redimensionnées, indexées par rôle
+    private final BufferedImage[] sprites = new BufferedImage[3];
+
+    // Images des tas de pollen déjà redimensionnées, indexées par coefficient de taille
+    private final BufferedImage[] tas;
+
+    // Calque des abeilles dessinées comme des points, et ses pixels
+    private final BufferedImage points;
+    private final int[] pixels;
+
+    // Durées du dessin des images (null : non mesurées)
+    private Histogramme mesureDessin;
+
+    /**
+     * Constructeur du panneau.
+     *
+     * @param map   Le plateau de simulation à dessiner.
+     * @param w     La largeur du panneau en pixels.
+     * @param h     La hauteur du panneau en pixels.
+     * @param cache   Le cache des images.
+     * @param echange L'échange d'où proviennent les instantanés à dessiner.
+     */
+    public PanneauSimulation(Tableau map, int w, int h, CacheImages cache, EchangeInstantanes echange) {
+        super(true); // Double tampon
+        this.map = map;
+        this.echange = echange;
+        this.w = w;
+        this.h = h;
+        ex = (float) Math.min(1.0, (double) w / ((long) map.getSize() * map.getXCase()));
+        ey = (float) Math.min(1.0, (double) h / ((long) map.getSize() * map.getYCase() + 20));
+        setPreferredSize(new Dimension(w, h));
+        setOpaque(true);
+
+        sprites[Essaim.ECLAIREUSE] = cache.get("eclaireuses.png", 50, 50);
+        sprites[Essaim.EMPLOYEE] = cache.get("employees.png", 50, 50);
+        sprites[Essaim.OBSERVATRICE] = cache.get("observatrice.png", 43, 43);
+        tas = cache.prepareTasPollen(map.getYCase());
+
+        base = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = base.createGraphics();
+        g.drawImage(cache.get("fond.jpg", w, h), 0, 0, null);
+        g.scale(ex, ey);
+        g.drawImage(cache.get("ruche.png", map.getXCase(), map.getYCase()),
+                    map.getXCase() * map.getXruche(), map.getYCase() * map.getYruche(), null);
+        g.dispose();
+        statique = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+        coefs = new int[echange.nbSources()];
+
+        points = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+        pixels = ((DataBufferInt) points.getRaster().getDataBuffer()).getData();
+    }
+
+    /**
+     * Mesure la durée du dessin de chaque image dans un histogramme.
+     *
+     * @param var L'histogramme (null pour ne plus mesurer).
+     */
+    void setMesureDessin(Histogramme var) {
+        mesureDessin = var;
+    }
+
+    /**
+     * Met à jour les tas de pollen de l'image statique d'après un instantané.
+     * La première fois, l'image est entièrement redessinée ; ensuite seuls les tas dont la taille
+     * a changé sont effacés, ainsi que les tas qui touchent leur zone, qui sont redessinés.
+     *
+     * @param inst L'instantané à dessiner.
+     */
+    private void metAJourStatique(Instantane inst) {
+        Graphics2D g = statique.createGraphics();
+        int yCase = map.getYCase();
+        if (sommeStatique < 0) {
+            g.drawImage(base, 0, 0, null);
+            g.scale(ex, ey);
+            for (int k = 0; k < coefs.length; k++) {
+                coefs[k] = coef(inst, k);
+                dessineTas(g, inst, k);
+            }
+        } else {
+            for (int k = 0; k < coefs.length; k++) {
+                int coef = coef(inst, k);
+                if (coef == coefs[k]) {
+                    continue;
+                }
+                // Zone de l'ancien ou du nouveau tas, le plus grand des deux
+                int xk = map.getXCase() * colonne(inst, k), yk = yCase * ligne(inst, k);
+                int tk = yCase * Math.max(coef, coefs[k]);
+                coefs[k] = coef;
+
+                int x0 = (int) (xk * ex), y0 = (int) (yk * ey);
+                g.setTransform(IDENTITE);
+                g.setClip(x0, y0, (int) Math.ceil((xk + tk) * ex) - x0, (int) Math.ceil((yk + tk) * ey) - y0);
+                g.drawImage(base, 0, 0, null);
+                g.scale(ex, ey);
+                for (int m = 0; m < coefs.length; m++) {
+                    if (coefs[m] > 0 && chevauche(xk, yk, tk, map.getXCase() * colonne(inst, m), yCase * ligne(inst, m), yCase * coefs[m])) {
+                        dessineTas(g, inst, m);
+                    }
+                }
+            }
+        }
+        g.dispose();
+        sommeStatique = inst.sommePollen;
+    }
+
+    /**
+     * Dessine un tas de pollen à la taille mémorisée dans `coefs` (rien si la source est vide).
+     *
+     * @param g    Le contexte graphique de l'image statique, à l'échelle du monde.
+     * @param inst L'instantané dessiné.
+     * @param k    L'indice de la source.
+     */
+    private void dessineTas(Graphics2D g, Instantane inst, int k) {
+        if (coefs[k] > 0) {
+            g.drawImage(tas[coefs[k]], map.getXCase() * colonne(inst, k), map.getYCase() * ligne(inst, k), null);
+        }
+    }
+
+    /**
+     * Retourne le coefficient de taille du tas d'une source, dimensionné en fonction de la quantité de pollen.
+     *
+     * @param inst L'instantané.
+     * @param k    L'indice de la source.
+     * @return Le coefficient de taille, 0 si la source est vide.
+     */
+    private int coef(Instantane inst, int k) {
+        return inst.qttSources[k] == 0 ? 0 : CacheImages.coefPollen(inst.qttSources[k], map.getQttpolen());
+    }
+
+    /**
+     * Retourne la ligne de la case d'une source.
+     *
+     * @param inst L'instantané.
+     * @param k    L'indice de la source.
+     * @return La ligne de la case (en matrice).
+     */
+    private int ligne(Instantane inst, int k) {
+        return inst.cellules[k] / map.getSize();
+    }
+
+    /**
+     * Retourne la colonne de la case d'une source.
+     *
+     * @param inst L'instantané.
+     * @param k    L'indice de la source.
+     * @return La colonne de la case (en matrice).
+     */
+    private int colonne(Instantane inst, int k) {
+        return inst.cellules[k] % map.getSize();
+    }
+
+    /**
+     * Indique si deux carrés du monde touchent des pixels communs une fois réduits au panneau.
+     *
+     * @param xa Le coin x du premier carré.
+     * @param ya Le coin y du premier carré.
+     * @param ta Le côté du premier carré.
+     * @param xb Le coin x du second carré.
+     * @param yb Le coin y du second carré.
+     * @param tb Le côté du second carré.
+     * @return true si les carrés se chevauchent sur le panneau.
+     */
+    private boolean chevauche(int xa, int ya, int ta, int xb, int yb, int tb) {
+        return (int) (xa * ex) < (int) Math.ceil((xb + tb) * ex) && (int) (xb * ex) < (int) Math.ceil((xa + ta) * ex)
+            && (int) (ya * ey) < (int) Math.ceil((yb + tb) * ey) && (int) (yb * ey) < (int) Math.ceil((ya + ta) * ey);
+    }
+
+    /**
+     * Dessine l'image statique puis les abeilles à leur position dans le dernier instantané publié.
+     *
+     * @param g Le contexte graphique fourni par Swing.
+     */
+    @Override
+    protected void paintComponent(Graphics g) {
+        long debut = System.nanoTime();
+        Instantane inst = echange.dernier();
+        if (inst.sommePollen != sommeStatique) {
+            metAJourStatique(inst);
+        }
+        g.drawImage(statique, 0, 0, null);
+
+        int n = inst.nb;
+        float a = inst.alpha(System.nanoTime());
+        float[] x = inst.x, y = inst.y, xp = inst.xPrec, yp = inst.yPrec;
+        float ex = this.ex, ey = this.ey;
+        if (n <= SEUIL_SPRITES) {
+            // Éclaireuses et employées d'abord, observatrices au-dessus
+            for (int i = 0; i < n; i++) {
+                byte role = inst.role[i];
+                if (role != Essaim.OBSERVATRICE) {
+                    g.drawImage(sprites[role], (int) ((xp[i] + (x[i] - xp[i]) * a) * ex), (int) ((yp[i] + (y[i] - yp[i]) * a) * ey), null);
+                }
+            }
+            for (int i = 0; i < n; i++) {
+                if (inst.role[i] == Essaim.OBSERVATRICE) {
+                    g.drawImage(sprites[Essaim.OBSERVATRICE], (int) ((xp[i] + (x[i] - xp[i]) * a) * ex), (int) ((yp[i] + (y[i] - yp[i]) * a) * ey), null);
+                }
+            }
+        } else {
+            Arrays.fill(pixels, 0);
+            for (int i = 0; i < n; i++) {
+                point((int) ((xp[i] + (x[i] - xp[i]) * a) * ex), (int) ((yp[i] + (y[i] - yp[i]) * a) * ey), COULEURS[inst.role[i]]);
+            }
+            g.drawImage(points, 0, 0, null);
+        }
+
+        if (mesureDessin != null) {
+            mesureDessin.enregistre(System.nanoTime() - debut);
+        }
+    }
+
+    /**
+     * Écrit un point de 2x2 pixels dans le calque des abeilles.
+     *
+     * @param px      La position x du point.
+     * @param py      La position y du point.
+     * @param couleur La couleur ARGB du point.
+     */
+    private void point(int px, int py, int couleur) {
+        if (px < 0 || py < 0 || px >= w - 1 || py >= h - 1) {
+            return;
+        }
+        int k = py * w + px;
+        pixels[k] = couleur;
+        pixels[k + 1] = couleur;
+        pixels[k + w] = couleur;
+        pixels[k + w + 1] = couleur;
+    }
+}
@@ -0,0 +1,443 @@
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Properties;
+
+/**
+ * Regroupe les paramètres d'une simulation lorsqu'elle est lancée sans passer par `InterfaceSimulation`.
+ * Les paramètres peuvent être lus depuis la ligne de commande (`--cle=valeur`) et/ou depuis un fichier
+ * de propriétés (`--config fichier.properties`). Les valeurs de la ligne de commande sont prioritaires.
+ *
+ * Clés reconnues : pollen, sources, observatrices, eclaireuses, visites, taille, largeur, hauteur,
+ * largeurFenetre, hauteurFenetre, maxTicks, verbeux, headless, parallele, threads, graine,
+ * sauvegarde, periodeSauvegarde, reprise, journal, mesures, rayon, selection, evenementiel, pas.
+ *
+ * `largeur` et `hauteur` sont les dimensions du monde en pixels (dans lesquelles se déplacent les abeilles),
+ * `largeurFenetre` et `hauteurFenetre` celles de la fenêtre d'affichage ; le monde est réduit pour tenir
+ * dans la fenêtre s'il est plus grand. Une valeur de 0 (par défaut) les calcule automatiquement.
+ *
+ * `sauvegarde` est le fichier dans lequel l'état de la simulation est sauvegardé tous les `periodeSauvegarde`
+ * ticks, et `reprise` un fichier de sauvegarde depuis lequel reprendre la simulation (voir `Sauvegarde`) ;
+ * une simulation reprise garde le plateau et la colonie de la sauvegarde.
+ * `journal` est le fichier dans lequel les événements de la simulation sont enregistrés (voir `Journal` et `Rejeu`).
+ * `mesures` publie par JMX la durée des phases du tick et du dessin, et le débit de la simulation (voir `Mesures`).
+ * `rayon` est le rayon, en cases, du voisinage dans lequel une employée cherche une meilleure source (3 : 7x7 cases).
+ * `selection` est la règle de choix des sources des observatrices : `glouton` (par défaut, la meilleure source,
+ * chacune n'étant considérée qu'avec une probabilité de 85%) ou `roulette` (probabilité proportionnelle à la qualité).
+ * `evenementiel` fait agir les abeilles seulement aux ticks de leurs actions programmées au lieu de les faire
+ * avancer à chaque tick (voir `Evenements`) ; il ne se combine pas avec `parallele`.
+ * `pas` est la distance, en pixels, parcourue par une abeille à chaque tick (5 par défaut) ; les éclaireuses
+ * repèrent les fleurs de toutes les cases qu'elles traversent, un grand pas ne leur en fait donc pas manquer.
+ */
+public class Parametres {
+
+    /** Taille minimale d'une case en pixels pour les dimensions automatiques (le pas par défaut d'une abeille) */
+    static final int TAILLE_CASE_MIN = 5;
+
+    /** Dimensions par défaut du monde et de la fenêtre */
+    static final int LARGEUR_DEFAUT = 1400, HAUTEUR_DEFAUT = 800;
+
+    /** Paramètres booléens qui s'activent aussi sans valeur (`--cle` pour `--cle=true`) */
+    static final String[] DRAPEAUX = {"headless", "verbeux", "parallele", "evenementiel", "mesures"};
+
+    /** Paramètres qui ne désignent qu'une seule simulation (fichiers, mesures JMX), refusés par `Balayage` et `Ensemble` */
+    static final String[] UNE_SIMULATION = {"sauvegarde", "periodeSauvegarde", "reprise", "journal", "mesures"};
+
+    // Paramètres du plateau (mêmes valeurs par défaut que l'interface et App.main)
+    private int pollen = 300;
+    private int sources = 10;
+    private int observatrices = 20;
+    private int eclaireuses = 30;
+    private int visites = 5;
+    private int taille = 25;
+    private int rayon = Tableau.RAYON_DEFAUT;
+    private int pas = Tableau.PAS_DEFAUT;
+    private boolean roulette = false;   // selection=roulette
+    private int largeur = 0;        // 0 : automatique (voir verifie)
+    private int hauteur = 0;
+    private int largeurFenetre = 0;
+    private int hauteurFenetre = 0;
+
+    // Nombre maximal de ticks avant d'abandonner une exécution sans interface
+    private long maxTicks = 1_000_000L;
+
+    // Affiche ou non les messages des abeilles sur la sortie standard
+    private boolean verbeux = false;
+
+    // Lance la simulation sans aucune fenêtre Swing
+    private boolean headless = false;
+
+    // Répartit chaque phase du tick sur plusieurs threads
+    private boolean parallele = false;
+
+    // Ne fait agir les abeilles qu'aux ticks de leurs actions programmées
+    private boolean evenementiel = false;
+
+    // Nombre de threads du tick parallèle (0 : autant que de processeurs)
+    private int threads = 0;
+
+    // Graine du générateur pseudo-aléatoire (tirée au hasard si elle n'est pas donnée)
+    private long graine;
+    private boolean graineFixee = false;
+
+    // Fichier de sauvegarde périodique (null : aucune), période en ticks, et fichier de reprise (null : aucun)
+    private String sauvegarde = null;
+    private long periodeSauvegarde = 100_000L;
+    private String reprise = null;
+
+    // Fichier du journal des événements (null : aucun)
+    private String journal = null;
+
+    // Publie les mesures de la simulation par JMX
+    private boolean mesures = false;
+
+    /**
+     * Construit les paramètres à partir des arguments de la ligne de commande.
+     * Un fichier de propriétés peut être donné avec `--config chemin` ou `--config=chemin`,
+     * il est lu en premier puis les options `--cle=valeur` le surchargent.
+     *
+     * @param args Les arguments passés à `App.main`.
+     * @return Les paramètres lus.
+     * @throws IllegalArgumentException si un argument ou une valeur est invalide.
+     */
+    public static Parametres depuisArguments(String[] args) {
+        Properties props = new Properties();
+
+        // Recherche d'abord un éventuel fichier de configuration
+        for (int i = 0; i < args.length; i++) {
+            String fichier = null;
+            if (args[i].equals("--config") && i + 1 < args.length) {
+                fichier = args[i + 1];
+            } else if (args[i].startsWith("--config=")) {
+                fichier = args[i].substring("--config=".length());
+            }
+            if (fichier != null) {
+                try (InputStream in = new FileInputStream(fichier)) {
+                    props.load(in);
+                } catch (IOException e) {
+                    throw new IllegalArgumentException("Impossible de lire le fichier de configuration " + fichier, e);
+                }
+            }
+        }
+
+        // Puis les options de la ligne de commande
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.equals("--config")) {
+                i++; // Le chemin a déjà été traité
+            } else if (arg.startsWith("--config=")) {
+                continue;
+            } else if (estDrapeau(arg)) {
+                props.setProperty(arg.substring(2), "true");
+            } else if (arg.startsWith("--") && arg.indexOf('=') > 2) {
+                props.setProperty(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            } else {
+                throw new IllegalArgumentException("Argument inconnu : " + arg);
+            }
+        }
+
+        return depuisProprietes(props);
+    }
+
+    /**
+     * Indique si un argument est le raccourci d'un paramètre booléen (`--parallele` pour `--parallele=true`).
+     *
+     * @param arg L'argument de la ligne de commande.
+     * @return true si l'argument est l'un des raccourcis reconnus.
+     */
+    static boolean estDrapeau(String arg) {
+        return arg.startsWith("--") && Arrays.asList(DRAPEAUX).contains(arg.substring(2));
+    }
+
+    /**
+     * Construit les paramètres à partir d'un ensemble de propriétés.
+     * Les clés absentes gardent leur valeur par défaut.
+     *
+     * @param props Les propriétés à lire.
+     * @return Les paramètres lus.
+     * @throws IllegalArgumentException si une valeur est invalide.
+     */
+    public static Parametres depuisProprietes(Properties props) {
+        Parametres p = new Parametres();
+
+        for (String cle : props.stringPropertyNames()) {
+            String valeur = props.getProperty(cle).trim();
+            try {
+                switch (cle) {
+                    case "pollen": p.pollen = Integer.parseInt(valeur); break;
+                    case "sources": p.sources = Integer.parseInt(valeur); break;
+                    case "observatrices": p.observatrices = Integer.parseInt(valeur); break;
+                    case "eclaireuses": p.eclaireuses = Integer.parseInt(valeur); break;
+                    case "visites": p.visites = Integer.parseInt(valeur); break;
+                    case "taille": p.taille = Integer.parseInt(valeur); break;
+                    case "rayon": p.rayon = Integer.parseInt(valeur); break;
+                    case "pas": p.pas = Integer.parseInt(valeur); break;
+                    case "selection":
+                        if (!valeur.equals("glouton") && !valeur.equals("roulette")) {
+                            throw new IllegalArgumentException("La sélection doit valoir glouton ou roulette : " + valeur);
+                        }
+                        p.roulette = valeur.equals("roulette");
+                        break;
+                    case "largeur": p.largeur = Integer.parseInt(valeur); break;
+                    case "hauteur": p.hauteur = Integer.parseInt(valeur); break;
+                    case "largeurFenetre": p.largeurFenetre = Integer.parseInt(valeur); break;
+                    case "hauteurFenetre": p.hauteurFenetre = Integer.parseInt(valeur); break;
+                    case "maxTicks": p.maxTicks = Long.parseLong(valeur); break;
+                    case "verbeux": p.verbeux = Boolean.parseBoolean(valeur); break;
+                    case "headless": p.headless = Boolean.parseBoolean(valeur); break;
+                    case "parallele": p.parallele = Boolean.parseBoolean(valeur); break;
+                    case "evenementiel": p.evenementiel = Boolean.parseBoolean(valeur); break;
+                    case "threads": p.threads = Integer.parseInt(valeur); break;
+                    case "graine": p.graine = Long.parseLong(valeur); p.graineFixee = true; break;
+                    case "sauvegarde": p.sauvegarde = valeur; break;
+                    case "periodeSauvegarde": p.periodeSauvegarde = Long.parseLong(valeur); break;
+                    case "reprise": p.reprise = valeur; break;
+                    case "journal": p.journal = valeur; break;
+                    case "mesures": p.mesures = Boolean.parseBoolean(valeur); break;
+                    default: throw new IllegalArgumentException("Paramètre inconnu : " + cle);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("La valeur de " + cle + " n'est pas un entier valide : " + valeur);
+            }
+        }
+
+        p.verifie();
+        return p;
+    }
+
+    /**
+     * Retourne une copie de ces paramètres avec les valeurs saisies dans `InterfaceSimulation`,
+     * après avoir vérifié leur cohérence.
+     *
+     * @param pollen        La quantité de pollen.
+     * @param sources       Le nombre de sources de pollen.
+     * @param observatrices Le nombre d'observatrices.
+     * @param eclaireuses   Le nombre d'éclaireuses.
+     * @param visites       Le nombre de visites possibles pour une source.
+     * @return Les nouveaux paramètres.
+     * @throws IllegalArgumentException si les paramètres sont incohérents.
+     */
+    Parametres avecColonie(int pollen, int sources, int observatrices, int eclaireuses, int visites) {
+        Parametres p = new Parametres();
+        p.pollen = pollen;
+        p.sources = sources;
+        p.observatrices = observatrices;
+        p.eclaireuses = eclaireuses;
+        p.visites = visites;
+        p.taille = taille;
+        p.rayon = rayon;
+        p.pas = pas;
+        p.roulette = roulette;
+        p.largeur = largeur;
+        p.hauteur = hauteur;
+        p.largeurFenetre = largeurFenetre;
+        p.hauteurFenetre = hauteurFenetre;
+        p.maxTicks = maxTicks;
+        p.verbeux = verbeux;
+        p.headless = headless;
+        p.parallele = parallele;
+        p.evenementiel = evenementiel;
+        p.threads = threads;
+        p.graine = graine;
+        p.graineFixee = graineFixee;
+        p.sauvegarde = sauvegarde;
+        p.periodeSauvegarde = periodeSauvegarde;
+        p.reprise = reprise;
+        p.journal = journal;
+        p.mesures = mesures;
+        p.verifie();
+        return p;
+    }
+
+    /**
+     * Vérifie la cohérence des paramètres (ces règles sont aussi celles de `InterfaceSimulation`)
+     * et calcule les dimensions laissées à 0.
+     *
+     * Le monde fait par défaut 1400x800 pixels, agrandi si nécessaire pour que chaque case mesure
+     * au moins `TAILLE_CASE_MIN` pixels : avec le pas par défaut, une abeille n'avance ainsi jamais de plus d'une case par tick.
+     * La fenêtre fait par défaut la taille du monde, limitée à 1400x800.
+     * Si aucune graine n'a été donnée, une graine est tirée au hasard et conservée.
+     *
+     * @throws IllegalArgumentException si les paramètres sont incohérents.
+     */
+    void verifie() {
+        if (largeur == 0) {
+            largeur = (int) Math.min(Integer.MAX_VALUE, Math.max(LARGEUR_DEFAUT, (long) taille * TAILLE_CASE_MIN));
+        }
+        if (hauteur == 0) {
+            hauteur = (int) Math.min(Integer.MAX_VALUE, Math.max(HAUTEUR_DEFAUT, (long) taille * TAILLE_CASE_MIN + 20));
+        }
+        if (largeurFenetre == 0) {
+            largeurFenetre = Math.min(largeur, LARGEUR_DEFAUT);
+        }
+        if (hauteurFenetre == 0) {
+            hauteurFenetre = Math.min(hauteur, HAUTEUR_DEFAUT);
+        }
+        if (!graineFixee) {
+            graine = Alea.graineAleatoire();
+            graineFixee = true;
+        }
+
+        if (sources < 1) {
+            throw new IllegalArgumentException("Il faut au moins une source de pollen");
+        } else if (sources > pollen) {
+            throw new IllegalArgumentException("Nombre de sources > quantité de pollen");
+        } else if (observatrices < 0) {
+            throw new IllegalArgumentException("Nombre d'observatrices négatif");
+        } else if (eclaireuses < 0) {
+            throw new IllegalArgumentException("Nombre d'éclaireuses négatif");
+        } else if (taille < 7) {
+            throw new IllegalArgumentException("La taille du plateau doit être d'au moins 7 cases");
+        } else if (taille > 65535) {
+            throw new IllegalArgumentException("La taille du plateau ne peut pas dépasser 65535 cases");
+        } else if (sources > (long) taille * taille - 25) {
+            throw new IllegalArgumentException("Trop de sources pour la taille du plateau");
+        } else if ((long) eclaireuses + observatrices + sources > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Trop d'abeilles");
+        } else if (largeur < taille || hauteur - 20 < taille) {
+            throw new IllegalArgumentException("Le monde doit mesurer au moins 1 pixel par case (largeur >= taille, hauteur >= taille + 20)");
+        } else if (largeurFenetre < 0 || hauteurFenetre < 0) {
+            throw new IllegalArgumentException("Dimensions de la fenêtre négatives");
+        } else if (maxTicks <= 0) {
+            throw new IllegalArgumentException("maxTicks doit être positif");
+        } else if (rayon < 0) {
+            throw new IllegalArgumentException("Le rayon du voisinage des employées doit être positif");
+        } else if (pas <= 0) {
+            throw new IllegalArgumentException("Le pas des abeilles doit être strictement positif");
+        } else if (parallele && evenementiel) {
+            throw new IllegalArgumentException("Le mode événementiel est séquentiel : evenementiel et parallele ne se combinent pas");
+        } else if (threads < 0) {
+            throw new IllegalArgumentException("Nombre de threads négatif");
+        } else if (periodeSauvegarde <= 0) {
+            throw new IllegalArgumentException("periodeSauvegarde doit être positif");
+        }
+    }
+
+    /**
+     * Crée le plateau de simulation correspondant à ces paramètres, avec un générateur initialisé par la graine.
+     *
+     * @return Le nouveau plateau.
+     */
+    Tableau creeTableau() {
+        return creeTableau(graine);
+    }
+
+    /**
+     * Crée le plateau de simulation correspondant à ces paramètres, avec une autre graine
+     * (par exemple pour les répliques d'un `Ensemble`).
+     *
+     * @param graine La graine du générateur.
+     * @return Le nouveau plateau.
+     */
+    Tableau creeTableau(long graine) {
+        Tableau t = new Tableau(taille, sources, pollen, observatrices, eclaireuses, hauteur, largeur, visites, new Alea(graine));
+        t.setVerbeux(verbeux);
+        t.setRayon(rayon);
+        t.setPas(pas);
+        t.setRoulette(roulette);
+        return t;
+    }
+
+    // Accesseurs
+
+    public int getPollen() {
+        return pollen;
+    }
+
+    public int getSources() {
+        return sources;
+    }
+
+    public int getObservatrices() {
+        return observatrices;
+    }
+
+    public int getEclaireuses() {
+        return eclaireuses;
+    }
+
+    public int getVisites() {
+        return visites;
+    }
+
+    public int getTaille() {
+        return taille;
+    }
+
+    public int getRayon() {
+        return rayon;
+    }
+
+    public int getPas() {
+        return pas;
+    }
+
+    public boolean isRoulette() {
+        return roulette;
+    }
+
+    public int getLargeur() {
+        return largeur;
+    }
+
+    public int getHauteur() {
+        return hauteur;
+    }
+
+    public int getLargeurFenetre() {
+        return largeurFenetre;
+    }
+
+    public int getHauteurFenetre() {
+        return hauteurFenetre;
+    }
+
+    public long getMaxTicks() {
+        return maxTicks;
+    }
+
+    public boolean isVerbeux() {
+        return verbeux;
+    }
+
+    public boolean isHeadless() {
+        return headless;
+    }
+
+    public boolean isParallele() {
+        return parallele;
+    }
+
+    public boolean isEvenementiel() {
+        return evenementiel;
+    }
+
+    public long getGraine() {
+        return graine;
+    }
+
+    public String getSauvegarde() {
+        return sauvegarde;
+    }
+
+    public long getPeriodeSauvegarde() {
+        return periodeSauvegarde;
+    }
+
+    public String getReprise() {
+        return reprise;
+    }
+
+    public String getJournal() {
+        return journal;
+    }
+
+    public boolean isMesures() {
+        return mesures;
+    }
+
+    public int getThreads() {
+        return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+}
@@ -0,0 +1,331 @@
+import java.util.Iterator;
+import java.util.TreeSet;
+import java.util.function.DoubleSupplier;
+import java.util.function.IntPredicate;
+
+/**
+ * Registre des sources de pollen découvertes par les abeilles (remplace le tableau `coordonneesEtQualite`).
+ * Chaque source reçoit un indice à son enregistrement ; ses coordonnées et sa qualité sont rangées
+ * dans des tableaux primitifs indexés par cet indice.
+ *
+ * Trois index permettent d'éviter les parcours complets :
+ * - une table de hachage à adressage ouvert, indexée par les coordonnées empaquetées de la case,
+ *   qui retrouve l'indice d'une source en O(1) ;
+ * - un ensemble trié par qualité décroissante, qui permet de parcourir les meilleures sources
+ *   en premier et de mettre à jour une qualité en O(log n) (choix glouton, `meilleure`) ;
+ * - un arbre de Fenwick des qualités, qui tire une source avec une probabilité proportionnelle à sa
+ *   qualité en O(log n) (roulette de l'algorithme des colonies d'abeilles artificielles, `tire`).
+ *
+ * Une source épuisée (plus aucune visite possible) ne redevient jamais disponible : elle est retirée
+ * définitivement des deux index de qualité la première fois qu'un parcours ou un tirage la rencontre,
+ * pour que les suivants ne la revisitent pas (avec des milliers de sources épuisées, chaque observatrice
+ * les reparcourait toutes à chaque tick).
+ *
+ * Toutes les méthodes sont synchronisées pour pouvoir être appelées pendant un tick parallèle.
+ */
+public class RegistreSources {
+
+    // Coordonnées (en matrice) et qualité de chaque source enregistrée
+    private final int[] xs, ys, qualite;
+
+    // Sources épuisées, retirées de l'ensemble trié
+    private final boolean[] epuisee;
+
+    // Nombre de sources enregistrées
+    private int taille = 0;
+
+    // Table de hachage : clé empaquetée de la case -> indice + 1 (0 = case vide de la table)
+    private final int[] cles, valeurs;
+    private final int masque;
+
+    // Sources de qualité non nulle, triées par qualité décroissante puis par indice croissant
+    private final TreeSet<Long> parQualite = new TreeSet<>();
+
+    // Arbre de Fenwick des poids des sources (qualité, ou 0 si elle est nulle ou la source épuisée),
+    // indexé à partir de 1, et somme de tous les poids
+    private final long[] fenwick;
+    private long total = 0;
+
+    /**
+     * Constructeur du registre.
+     *
+     * @param capacite Le nombre maximal de sources pouvant être enregistrées.
+     */
+    public RegistreSources(int capacite) {
+        xs = new int[capacite];
+        ys = new int[capacite];
+        qualite = new int[capacite];
+        epuisee = new boolean[capacite];
+        fenwick = new long[capacite + 1];
+
+        // Table de taille puissance de deux, au moins deux fois la capacité
+        int n = Integer.highestOneBit(Math.max(2, capacite) * 2 - 1) << 1;
+        cles = new int[n];
+        valeurs = new int[n];
+        masque = n - 1;
+    }
+
+    /**
+     * Empaquette les coordonnées d'une case en une seule clé entière.
+     *
+     * @param mx Coordonnée x de la case (en matrice, inférieure à 65536).
+     * @param my Coordonnée y de la case (en matrice, inférieure à 65536).
+     * @return La clé de la case.
+     */
+    static int cle(int mx, int my) {
+        return (my << 16) | mx;
+    }
+
+    /**
+     * Calcule la position de départ d'une clé dans la table de hachage.
+     *
+     * @param cle La clé empaquetée.
+     * @return La position dans la table.
+     */
+    private int hache(int cle) {
+        int h = cle * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & masque;
+    }
+
+    /**
+     * Ajoute une source au registre si elle n'y est pas déjà.
+     *
+     * @param mx Coordonnée x de la source (en matrice).
+     * @param my Coordonnée y de la source (en matrice).
+     * @return L'indice de la source ajoutée, ou -1 si elle était déjà présente.
+     */
+    public synchronized int enregistre(int mx, int my) {
+        int cle = cle(mx, my);
+        int pos = hache(cle);
+
+        while (valeurs[pos] != 0) {
+            if (cles[pos] == cle) {
+                return -1;
+            }
+            pos = (pos + 1) & masque;
+        }
+
+        if (taille == xs.length) {
+            throw new IllegalStateException("Registre des sources plein (" + xs.length + " sources)");
+        }
+        int indice = taille++;
+        xs[indice] = mx;
+        ys[indice] = my;
+        cles[pos] = cle;
+        valeurs[pos] = indice + 1;
+        return indice;
+    }
+
+    /**
+     * Retrouve l'indice d'une source à partir de ses coordonnées.
+     *
+     * @param mx Coordonnée x de la source (en matrice).
+     * @param my Coordonnée y de la source (en matrice).
+     * @return L'indice de la source, ou -1 si elle n'est pas enregistrée.
+     */
+    public synchronized int indice(int mx, int my) {
+        int cle = cle(mx, my);
+        int pos = hache(cle);
+
+        while (valeurs[pos] != 0) {
+            if (cles[pos] == cle) {
+                return valeurs[pos] - 1;
+            }
+            pos = (pos + 1) & masque;
+        }
+        return -1;
+    }
+
+    /**
+     * Clé de tri d'une source : qualité décroissante puis indice croissant en ordre naturel inversé.
+     */
+    private static long cleTri(int q, int indice) {
+        return ((long) q << 32) | (Integer.MAX_VALUE - indice);
+    }
+
+    /**
+     * Modifie la qualité connue d'une source.
+     *
+     * @param indice L'indice de la source.
+     * @param q      La nouvelle qualité.
+     */
+    public synchronized void setQualite(int indice, int q) {
+        if (qualite[indice] > 0 && !epuisee[indice]) {
+            parQualite.remove(cleTri(qualite[indice], indice));
+        }
+        if (!epuisee[indice]) {
+            ajoutePoids(indice, (long) Math.max(q, 0) - Math.max(qualite[indice], 0));
+        }
+        qualite[indice] = q;
+        if (q > 0 && !epuisee[indice]) {
+            parQualite.add(cleTri(q, indice));
+        }
+    }
+
+    /**
+     * Ajoute une variation au poids d'une source dans l'arbre de Fenwick.
+     *
+     * @param indice L'indice de la source.
+     * @param delta  La variation du poids.
+     */
+    private void ajoutePoids(int indice, long delta) {
+        total += delta;
+        for (int k = indice + 1; k < fenwick.length; k += k & -k) {
+            fenwick[k] += delta;
+        }
+    }
+
+    /**
+     * Retire définitivement une source épuisée des deux index de qualité.
+     *
+     * @param indice L'indice de la source.
+     */
+    private void epuise(int indice) {
+        if (qualite[indice] > 0) {
+            ajoutePoids(indice, -qualite[indice]);
+        }
+        epuisee[indice] = true;
+    }
+
+    /**
+     * Parcourt les sources de qualité non nulle de la meilleure à la moins bonne (à qualité égale,
+     * dans l'ordre d'enregistrement) et retourne la première acceptée par le filtre.
+     *
+     * @param filtre Le filtre appliqué à chaque indice de source.
+     * @return L'indice de la première source acceptée, ou -1 si aucune ne l'est.
+     */
+    public int meilleure(IntPredicate filtre) {
+        return meilleure(k -> false, filtre);
+    }
+
+    /**
+     * Parcourt les sources de qualité non nulle comme `meilleure(IntPredicate)`, en retirant
+     * définitivement au passage les sources épuisées (qui ne sont pas soumises au filtre).
+     *
+     * @param epuise Indique si une source est épuisée pour toujours.
+     * @param filtre Le filtre appliqué à chaque indice de source non épuisée.
+     * @return L'indice de la première source acceptée, ou -1 si aucune ne l'est.
+     */
+    public synchronized int meilleure(IntPredicate epuise, IntPredicate filtre) {
+        Iterator<Long> it = parQualite.descendingIterator();
+        while (it.hasNext()) {
+            int indice = Integer.MAX_VALUE - (int) (it.next() & 0xFFFFFFFFL);
+            if (epuise.test(indice)) {
+                it.remove();
+                epuise(indice);
+            } else if (filtre.test(indice)) {
+                return indice;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Tire une source de qualité non nulle avec une probabilité proportionnelle à sa qualité (roulette).
+     * Une source épuisée tirée est retirée définitivement et le tirage recommence parmi les autres.
+     *
+     * @param epuise Indique si une source est épuisée pour toujours.
+     * @param alea   Le générateur des tirages (valeurs dans [0, 1)).
+     * @return L'indice de la source tirée, ou -1 s'il ne reste aucune source de qualité non nulle.
+     */
+    public synchronized int tire(IntPredicate epuise, DoubleSupplier alea) {
+        while (total > 0) {
+            // Descente dans l'arbre : plus petit indice dont la somme des poids jusqu'à lui dépasse le tirage
+            long reste = Math.min((long) (alea.getAsDouble() * total), total - 1);
+            int k = 0;
+            for (int pas = Integer.highestOneBit(fenwick.length - 1); pas > 0; pas >>= 1) {
+                if (k + pas < fenwick.length && fenwick[k + pas] <= reste) {
+                    k += pas;
+                    reste -= fenwick[k];
+                }
+            }
+            if (!epuise.test(k)) {
+                return k;
+            }
+            parQualite.remove(cleTri(qualite[k], k));
+            epuise(k);
+        }
+        return -1;
+    }
+
+    /**
+     * Retourne le nombre de sources de qualité non nulle qui n'ont pas encore été retirées comme épuisées
+     * (tant qu'il est nul, `meilleure` et `tire` retournent -1 sans appeler leur filtre ni leur générateur).
+     *
+     * @return Le nombre de sources candidates.
+     */
+    public synchronized int candidates() {
+        return parQualite.size();
+    }
+
+    /**
+     * Indique si une source a été retirée définitivement parce qu'elle était épuisée.
+     *
+     * @param indice L'indice de la source.
+     * @return true si la source est épuisée.
+     */
+    public synchronized boolean estEpuisee(int indice) {
+        return epuisee[indice];
+    }
+
+    /**
+     * Retire définitivement une source épuisée : par `Essaim.choisiSrc` dès qu'une observatrice prend
+     * la dernière visite d'une source, et à la reprise d'une simulation sauvegardée pour les sources déjà épuisées.
+     *
+     * @param indice L'indice de la source.
+     */
+    synchronized void retire(int indice) {
+        if (!epuisee[indice]) {
+            parQualite.remove(cleTri(qualite[indice], indice));
+            epuise(indice);
+        }
+    }
+
+    /**
+     * Retourne le nombre de sources enregistrées.
+     *
+     * @return Le nombre de sources.
+     */
+    public synchronized int size() {
+        return taille;
+    }
+
+    /**
+     * Retourne le nombre maximal de sources.
+     *
+     * @return La capacité du registre.
+     */
+    public int capacite() {
+        return xs.length;
+    }
+
+    /**
+     * Retourne la coordonnée x d'une source.
+     *
+     * @param indice L'indice de la source.
+     * @return La coordonnée x (en matrice).
+     */
+    public synchronized int getX(int indice) {
+        return xs[indice];
+    }
+
+    /**
+     * Retourne la coordonnée y d'une source.
+     *
+     * @param indice L'indice de la source.
+     * @return La coordonnée y (en matrice).
+     */
+    public synchronized int getY(int indice) {
+        return ys[indice];
+    }
+
+    /**
+     * Retourne la qualité connue d'une source.
+     *
+     * @param indice L'indice de la source.
+     * @return La qualité de la source.
+     */
+    public synchronized int getQualite(int indice) {
+        return qualite[indice];
+    }
+}
@@ -0,0 +1,369 @@
+import javax.swing.*;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * Rejeu d'une simulation à partir de son journal d'événements (voir `Journal`), sans la simuler à nouveau.
+ *
+ * Le plateau et la colonie sont reconstruits à partir de l'en-tête du journal, puis les événements
+ * font avancer une simulation qui n'exécute aucun comportement : seules les positions des abeilles,
+ * le pollen récolté et les sources épuisées (qui disparaissent de l'affichage) sont mis à jour, et
+ * la fenêtre habituelle (`Display`) dessine les instantanés publiés comme pendant la simulation.
+ *
+ * Chaque événement donne la position d'une abeille à un tick (à la ruche pour une découverte ou un dépôt,
+ * sur la source pour une employée qui prend une source ou une observatrice qui la trouve épuisée) ;
+ * entre deux événements, l'abeille attend puis vole en ligne droite à la vitesse des abeilles pour arriver
+ * à l'heure. Les trajets sans événement (exploration des éclaireuses) ne sont pas connus du journal.
+ *
+ * Utilisation : `java Rejeu journal.bin [--vitesse=n] [--resume]`, où `--vitesse` est le multiplicateur
+ * de vitesse (comme dans l'interface, 0 pour illimitée) et `--resume` affiche seulement un résumé du journal.
+ */
+public class Rejeu {
+
+    /** Vitesse de vol des abeilles en pixels par tick (celle de `Essaim`) */
+    static final float VITESSE = 5;
+
+    // Journal lu et position de lecture
+    private final byte[] octets;
+    private int pos = 0;
+
+    // Simulation reconstruite à partir de l'en-tête
+    private final Tableau tab;
+    private final Simulation sim;
+    private final Essaim essaim;
+    private final int nbEclaireuse, nbEmployees;
+    private final long tickDebut;
+
+    // Événements décodés, dans l'ordre du journal
+    private int nb = 0;
+    private long[] ticks;
+    private byte[] types;
+    private int[] abeilles, xs, ys, valeurs;
+
+    // Position de l'abeille à chaque événement (en pixels), et événement suivant de la même abeille
+    private float[] px, py;
+    private int[] suivant;
+
+    // Le journal se termine par l'événement de fin (sinon, il a été interrompu)
+    private boolean complet = false;
+
+    // Pour chaque abeille : dernier point de passage (tick et position) et prochain événement (-1 : aucun)
+    private final long[] t0;
+    private final float[] x0, y0;
+    private final int[] prochain;
+
+    // Prochain événement à appliquer
+    private int curseur = 0;
+
+    /**
+     * Lit un journal et reconstruit le plateau et la colonie.
+     *
+     * @param octets Le contenu du journal.
+     * @throws IOException si le journal n'est pas valide.
+     */
+    Rejeu(byte[] octets) throws IOException {
+        this.octets = octets;
+        try {
+            if (varint() != Journal.MAGIQUE) {
+                throw new IOException("Ce fichier n'est pas un journal de simulation");
+            }
+            long version = varint();
+            if (version != Journal.VERSION) {
+                throw new IOException("Version de journal non prise en charge : " + version);
+            }
+            int size = (int) varint(), xruche = (int) varint(), yruche = (int) varint();
+            int xcase = (int) varint(), ycase = (int) varint(), qttpolen = (int) varint();
+            nbEclaireuse = (int) varint();
+            nbEmployees = (int) varint();
+            int nbObservatrice = (int) varint();
+            long graine = varint();
+            tickDebut = varint();
+
+            Ruche r = new Ruche(nbEclaireuse, nbEmployees, nbObservatrice, xruche * xcase, yruche * ycase, new Alea(graine));
+            tab = new Tableau(size, xruche, yruche, xcase, ycase, qttpolen, r, new Alea(graine));
+            tab.setVerbeux(false);
+            long sources = varint(), cellule = 0;
+            for (long k = 0; k < sources; k++) {
+                cellule += varint();
+                tab.ajouteSource((int) (cellule % size), (int) (cellule / size), (int) varint(), (int) varint());
+            }
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new IOException("En-tête du journal tronqué");
+        } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("En-tête du journal invalide : " + e.getMessage());
+        }
+
+        sim = new Simulation(tab);
+        sim.restaure(sim.getMaxEmployees(), sim.getMaxObservatrice(), 0, tickDebut);
+        essaim = sim.getRuche().getEssaim();
+        decode();
+
+        // Chaînage des événements de chaque abeille, du dernier au premier
+        int n = essaim.size();
+        prochain = new int[n];
+        Arrays.fill(prochain, -1);
+        suivant = new int[nb];
+        for (int e = nb - 1; e >= 0; e--) {
+            suivant[e] = prochain[abeilles[e]];
+            prochain[abeilles[e]] = e;
+        }
+        t0 = new long[n];
+        Arrays.fill(t0, tickDebut);
+        x0 = essaim.x.clone();
+        y0 = essaim.y.clone();
+    }
+
+    /**
+     * Décode tous les événements du journal, jusqu'à l'événement de fin ou au dernier événement complet.
+     *
+     * @throws IOException si un événement est invalide.
+     */
+    private void decode() throws IOException {
+        int capacite = Math.max(16, octets.length / 4);
+        ticks = new long[capacite];
+        types = new byte[capacite];
+        abeilles = new int[capacite];
+        xs = new int[capacite];
+        ys = new int[capacite];
+        valeurs = new int[capacite];
+        px = new float[capacite];
+        py = new float[capacite];
+
+        long tick = tickDebut;
+        int abeille = 0, x = 0, y = 0;
+        int xRuche = tab.getXruche() * tab.getXCase(), yRuche = tab.getYruche() * tab.getYCase();
+        try {
+            while (pos < octets.length) {
+                long tete = varint();
+                int type = (int) (tete & 7);
+                tick += tete >>> 3;
+                if (type == Journal.FIN) {
+                    complet = true;
+                    break;
+                }
+                abeille += (int) Journal.dezigzag(varint());
+                int valeur = 0;
+                float ax = xRuche, ay = yRuche;
+                if (type == Journal.DEPOT) {
+                    valeur = (int) varint();
+                } else {
+                    x += (int) Journal.dezigzag(varint());
+                    y += (int) Journal.dezigzag(varint());
+                    if (type == Journal.EPUISEMENT) {
+                        valeur = abeille + (int) Journal.dezigzag(varint());
+                    } else if (type != Journal.DECOUVERTE && type != Journal.REVENDICATION) {
+                        throw new IOException("Type d'événement inconnu : " + type);
+                    }
+                    // Sur la source : employée qui la prend, ou observatrice qui la trouve épuisée
+                    boolean employee = abeille >= nbEclaireuse && abeille < nbEclaireuse + nbEmployees;
+                    if ((type == Journal.REVENDICATION && employee) || type == Journal.EPUISEMENT) {
+                        ax = x * tab.getXCase();
+                        ay = y * tab.getYCase();
+                    }
+                }
+                if (abeille < 0 || abeille >= essaim.size()) {
+                    throw new IOException("Abeille inconnue dans le journal : " + abeille);
+                }
+
+                if (nb == ticks.length) {
+                    int c = nb * 2;
+                    ticks = Arrays.copyOf(ticks, c);
+                    types = Arrays.copyOf(types, c);
+                    abeilles = Arrays.copyOf(abeilles, c);
+                    xs = Arrays.copyOf(xs, c);
+                    ys = Arrays.copyOf(ys, c);
+                    valeurs = Arrays.copyOf(valeurs, c);
+                    px = Arrays.copyOf(px, c);
+                    py = Arrays.copyOf(py, c);
+                }
+                ticks[nb] = tick;
+                types[nb] = (byte) type;
+                abeilles[nb] = abeille;
+                xs[nb] = x;
+                ys[nb] = y;
+                valeurs[nb] = valeur;
+                px[nb] = ax;
+                py[nb] = ay;
+                nb++;
+            }
+        } catch (ArrayIndexOutOfBoundsException e) {
+            // Journal interrompu au milieu d'un événement : on garde les événements complets
+        }
+    }
+
+    /**
+     * Lit un varint à la position courante.
+     *
+     * @return La valeur lue.
+     */
+    private long varint() {
+        long v = 0;
+        int decalage = 0;
+        byte b;
+        do {
+            b = octets[pos++];
+            v |= (long) (b & 0x7F) << decalage;
+            decalage += 7;
+        } while (b < 0);
+        return v;
+    }
+
+    /**
+     * Fait avancer le rejeu jusqu'à un tick : applique les événements de ce tick et des précédents,
+     * puis place chaque abeille sur son trajet vers son prochain événement.
+     *
+     * @param t Le tick à atteindre.
+     */
+    void avance(long t) {
+        Ruche r = sim.getRuche();
+        for (; curseur < nb && ticks[curseur] <= t; curseur++) {
+            int e = curseur, a = abeilles[e];
+            t0[a] = ticks[e];
+            x0[a] = px[e];
+            y0[a] = py[e];
+            prochain[a] = suivant[e];
+            if (types[e] == Journal.DEPOT) {
+                r.ajoutePollen(valeurs[e]);
+            } else if (types[e] == Journal.EPUISEMENT) {
+                if (tab.getGrille().estSource(xs[e], ys[e])) {
+                    tab.getGrille().setQtt(xs[e], ys[e], 0);
+                }
+            }
+        }
+
+        float[] x = essaim.x, y = essaim.y;
+        for (int a = 0; a < x.length; a++) {
+            int e = prochain[a];
+            if (e < 0) {
+                x[a] = x0[a];
+                y[a] = y0[a];
+                continue;
+            }
+            float dx = px[e] - x0[a], dy = py[e] - y0[a];
+            double depart = Math.max(t0[a], ticks[e] - Math.sqrt(dx * dx + dy * dy) / VITESSE);
+            float f = t <= depart ? 0f : (float) ((t - depart) / (ticks[e] - depart));
+            x[a] = x0[a] + dx * f;
+            y[a] = y0[a] + dy * f;
+        }
+        sim.restaure(sim.getMaxEmployees(), sim.getMaxObservatrice(), 0, t);
+    }
+
+    /**
+     * Retourne le tick du dernier événement du journal.
+     *
+     * @return Le dernier tick.
+     */
+    long getTickFin() {
+        return nb == 0 ? tickDebut : ticks[nb - 1];
+    }
+
+    /**
+     * Affiche un résumé du journal : nombre d'événements de chaque type, durée et pollen déposé.
+     */
+    void afficheResume() {
+        int[] parType = new int[8];
+        long pollen = 0;
+        for (int e = 0; e < nb; e++) {
+            parType[types[e]]++;
+            if (types[e] == Journal.DEPOT) {
+                pollen += valeurs[e];
+            }
+        }
+        System.out.println("Graine : " + tab.getAlea().getGraine());
+        System.out.println("Ticks " + tickDebut + " à " + getTickFin() + (complet ? "" : " (journal interrompu)"));
+        System.out.println("Découvertes : " + parType[Journal.DECOUVERTE] + "  Revendications : " + parType[Journal.REVENDICATION]
+                + "  Dépôts : " + parType[Journal.DEPOT] + "  Épuisements : " + parType[Journal.EPUISEMENT]);
+        System.out.println("Pollen déposé : " + pollen + "  Pollen total : " + tab.getQttpolen());
+        System.out.printf("Taille : %d octets (%.2f octets par événement)%n", octets.length, (double) octets.length / Math.max(1, nb));
+    }
+
+    /**
+     * Point d'entrée du rejeu.
+     *
+     * @param args Le fichier du journal, puis `--vitesse=n` et/ou `--resume`.
+     */
+    public static void main(String[] args) {
+        String fichier = null;
+        int vitesse = 10;
+        boolean resume = false;
+        for (String arg : args) {
+            if (arg.startsWith("--vitesse=")) {
+                vitesse = Integer.parseInt(arg.substring("--vitesse=".length()));
+            } else if (arg.equals("--resume")) {
+                resume = true;
+            } else {
+                fichier = arg;
+            }
+        }
+        if (fichier == null) {
+            System.err.println("Utilisation : java Rejeu journal.bin [--vitesse=n] [--resume]");
+            System.exit(1);
+        }
+
+        CacheImages cache = resume ? null : CacheImages.prechargeEnArrierePlan();
+        Rejeu rejeu;
+        try {
+            rejeu = new Rejeu(Files.readAllBytes(Paths.get(fichier)));
+        } catch (IOException e) {
+            System.err.println("Impossible de lire le journal : " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+        rejeu.afficheResume();
+        if (!resume) {
+            cache.attend();
+            rejeu.joue(cache, vitesse);
+        }
+    }
+
+    /**
+     * Ouvre la fenêtre d'affichage et rejoue le journal à la vitesse donnée, jusqu'à son dernier événement.
+     *
+     * @param cache   Le cache des images.
+     * @param vitesse Le multiplicateur de vitesse (0 : illimitée).
+     */
+    void joue(CacheImages cache, int vitesse) {
+        EchangeInstantanes echange = new EchangeInstantanes(sim);
+        int w = Math.min(tab.getSize() * tab.getXCase(), Parametres.LARGEUR_DEFAUT);
+        int h = Math.min(tab.getSize() * tab.getYCase() + 20, Parametres.HAUTEUR_DEFAUT);
+        long fin = getTickFin();
+
+        try {
+            SwingUtilities.invokeAndWait(() -> {
+                Display d = new Display(w, h, tab, cache, echange);
+                new Timer(16, e -> {
+                    d.setTitle("Rejeu : tick " + echange.dernier().getTick() + " / " + fin);
+                    d.affAbeille();
+                }).start();
+            });
+        } catch (InterruptedException | InvocationTargetException e) {
+            throw new IllegalStateException("Impossible de créer la fenêtre d'affichage", e);
+        }
+
+        // Même cadence que la boucle de simulation d'App
+        Horloge horloge = new Horloge();
+        horloge.setVitesse(vitesse);
+        long t = tickDebut;
+        while (t < fin) {
+            long debutImage = System.nanoTime();
+            int n = horloge.estIllimitee() ? 100 : horloge.ticksAFaire();
+            for (int i = 0; i < n && t < fin; i++) {
+                echange.avantTick(sim);
+                avance(++t);
+                echange.publie(sim, System.nanoTime() - horloge.getAccumule(), horloge.getPeriode());
+            }
+
+            long reste = 1_000_000_000L / 60 - (System.nanoTime() - debutImage);
+            if (reste > 0) {
+                try {
+                    Thread.sleep(reste / 1_000_000, (int) (reste % 1_000_000));
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -1,3 +1,5 @@
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Représente une ruche dans le système de simulation.
  * La ruche contient des abeilles de différents types : éclaireuses, employées et observatrices.
@@ -5,7 +7,10 @@
  */
 public class Ruche extends Case {
 
-    // Tableau contenant toutes les abeilles de la ruche
+    // Stockage en colonnes de toutes les abeilles de la ruche
+    private Essaim essaim;
+
+    // Vues objet sur les abeilles, créées seulement si on les demande
     private Abeille[] population;
 
     // Nombre d'éclaireuses dans la ruche
@@ -17,9 +22,15 @@ public class Ruche extends Case {
     // Nombre d'observatrices dans la ruche
     private int nbObservatrice;
 
+    // Quantité de pollen rapportée à la ruche par les employées
+    private final AtomicInteger pollenRecolte = new AtomicInteger();
+
     // Indices des abeilles qui seront mobilisées par les éclaireuses et observatrices
-    private static int IndiceEmployees = 0;
-    private static int IndiceEclaireuse = 0;
+    private final AtomicInteger IndiceEmployees;
+    private final AtomicInteger IndiceEclaireuse = new AtomicInteger();
+
+    // Registre des sources de pollen découvertes par les abeilles de cette ruche
+    private final RegistreSources registre;
 
     /**
      * Constructeur de la ruche.
@@ -31,38 +42,22 @@ public class Ruche extends Case {
      * @param nbObservatrice Le nombre d'observatrices dans la ruche
      * @param x1             La coordonnée X de la ruche
      * @param y1             La coordonnée Y de la ruche
+     * @param alea           Le générateur dont sont dérivés les flux pseudo-aléatoires des abeilles
      */
-    Ruche(int nbEclaireuse, int nbEmployees, int nbObservatrice, int x1, int y1) {
+    Ruche(int nbEclaireuse, int nbEmployees, int nbObservatrice, int x1, int y1, Alea alea) {
         super(x1, y1); // Position de la ruche sur le plateau
         this.nbEmployees = nbEmployees;
         this.nbEclaireuse = nbEclaireuse;
         this.nbObservatrice = nbObservatrice;
 
-        // Initialisation de l'indice des employés
-        if (Ruche.IndiceEmployees == 0) {
-            Ruche.IndiceEmployees = nbEclaireuse;
-        }
-
-        // Création du tableau contenant toutes les abeilles
-        population = new Abeille[nbEclaireuse + nbEmployees + nbObservatrice];
+        // Initialisation de l'indice des employés (la première employée suit la dernière éclaireuse)
+        IndiceEmployees = new AtomicInteger(nbEclaireuse);
 
-        // Création des abeilles éclaireuses
-        for (int i = 0; i < nbEclaireuse; i++) {
-            Eclaireuses e = new Eclaireuses(x1, y1, 0, 0);
-            population[i] = e;
-        }
-
-        // Création des abeilles employées
-        for (int i = nbEclaireuse; i < nbEmployees + nbEclaireuse; i++) {
-            Employees em = new Employees(x1, y1, 0, 0);
-            population[i] = em;
-        }
+        // Initialisation du registre des sources observées (une employée par source)
+        registre = new RegistreSources(nbEmployees);
 
-        // Création des abeilles observatrices
-        for (int i = nbEmployees + nbEclaireuse; i < nbEmployees + nbEclaireuse + nbObservatrice; i++) {
-            Observatrices ob = new Observatrices(x1, y1, 0, 0, nbEmployees);
-            population[i] = ob;
-        }
+        // Création de toutes les abeilles, rangées par rôle
+        essaim = new Essaim(nbEclaireuse, nbEmployees, nbObservatrice, x1, y1, alea, registre);
     }
 
     /**
@@ -93,6 +88,25 @@ public class Ruche extends Case {
         System.err.println("Set qtt dans ruche");
     }
 
+    /**
+     * Retourne la quantité de pollen rapportée à la ruche.
+     * Ce stock est distinct de `getQtt()`, qui reste à -1 pour que la ruche ne soit jamais prise pour une fleur.
+     * 
+     * @return La quantité de pollen récoltée
+     */
+    public int getPollenRecolte() {
+        return pollenRecolte.get();
+    }
+
+    /**
+     * Ajoute du pollen au stock de la ruche.
+     * 
+     * @param qtt La quantité de pollen déposée
+     */
+    public void ajoutePollen(int qtt) {
+        pollenRecolte.addAndGet(qtt);
+    }
+
     /**
      * Retourne le type de la case, ici "ruche".
      * 
@@ -111,18 +125,49 @@ public class Ruche extends Case {
         int x, y;
 
         for (int i = 0; i < nbEclaireuse; i++) {
-            x = (int) (Math.random() * tab.getSize() * tab.getXCase());
-            y = (int) (Math.random() * tab.getSize() * tab.getYCase());
-            population[i].goCase(x, y);
+            x = (int) (Alea.suivant(essaim.alea, i) * tab.getSize() * tab.getXCase());
+            y = (int) (Alea.suivant(essaim.alea, i) * tab.getSize() * tab.getYCase());
+            essaim.goCase(i, x, y);
         }
     }
 
+    /**
+     * Retourne le registre des sources de pollen découvertes (coordonnées et qualité).
+     * 
+     * @return Le registre des sources
+     */
+    public RegistreSources getRegistre() {
+        return registre;
+    }
+
+    /**
+     * Retourne le stockage en colonnes des abeilles de la ruche.
+     * 
+     * @return L'essaim de la ruche
+     */
+    public Essaim getEssaim() {
+        return essaim;
+    }
+
     /**
      * Retourne le tableau des abeilles de la ruche.
+     * Les abeilles sont des vues sur l'essaim, créées au premier appel.
      * 
      * @return Le tableau des abeilles de la ruche
      */
     public Abeille[] getPopulation() {
+        if (population == null) {
+            population = new Abeille[essaim.size()];
+            for (int i = 0; i < population.length; i++) {
+                if (essaim.getRole(i) == Essaim.ECLAIREUSE) {
+                    population[i] = new Eclaireuses(essaim, i);
+                } else if (essaim.getRole(i) == Essaim.EMPLOYEE) {
+                    population[i] = new Employees(essaim, i);
+                } else {
+                    population[i] = new Observatrices(essaim, i);
+                }
+            }
+        }
         return population;
     }
 
@@ -158,8 +203,8 @@ public class Ruche extends Case {
      * 
      * @return L'indice des employés
      */
-    public static int getIndiceEmployees() {
-        return IndiceEmployees;
+    public int getIndiceEmployees() {
+        return IndiceEmployees.get();
     }
 
     /**
@@ -167,35 +212,44 @@ public class Ruche extends Case {
      * 
      * @return L'indice des éclaireuses
      */
-    public static int getIndiceEclaireuse() {
-        return IndiceEclaireuse;
+    public int getIndiceEclaireuse() {
+        return IndiceEclaireuse.get();
     }
 
     /**
-     * Modifie l'indice des employés dans la ruche.
+     * Réserve de façon atomique la prochaine employée à mobiliser.
      * 
-     * @param var Le nouvel indice des employés
+     * @return L'identifiant de l'employée réservée
      */
-    public static void setIndiceEmployees(int var) {
-        Ruche.IndiceEmployees = var;
+    int prochaineEmployee() {
+        return IndiceEmployees.getAndIncrement();
     }
 
     /**
-     * Modifie l'indice des éclaireuses dans la ruche.
+     * Réserve de façon atomique la prochaine éclaireuse à réactiver (les éclaireuses sont réactivées à tour de rôle).
      * 
-     * @param var Le nouvel indice des éclaireuses
+     * @return L'identifiant de l'éclaireuse réservée
      */
-    public static void setIndiceEclaireuse(int var) {
-        Ruche.IndiceEclaireuse = var;
+    int prochaineEclaireuse() {
+        return IndiceEclaireuse.getAndUpdate(i -> (i + 1) % nbEclaireuse);
     }
 
     /**
-     * Modifie la population de la ruche.
+     * Modifie l'indice des employés dans la ruche.
      * 
-     * @param var Le nouveau tableau des abeilles de la ruche
+     * @param var Le nouvel indice des employés
+     */
+    public void setIndiceEmployees(int var) {
+        IndiceEmployees.set(var);
+    }
+
+    /**
+     * Modifie l'indice des éclaireuses dans la ruche.
+     * 
+     * @param var Le nouvel indice des éclaireuses
      */
-    public void setPopulation(Abeille[] var) {
-        population = var;
+    public void setIndiceEclaireuse(int var) {
+        IndiceEclaireuse.set(var);
     }
 
     /**
@@ -0,0 +1,359 @@
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Sauvegarde binaire de l'état complet d'une simulation, et reprise depuis une sauvegarde.
+ *
+ * Le fichier contient un en-tête de taille fixe (dimensions du plateau, ruche, générateur, compteurs,
+ * rayon du voisinage des employées, règle de choix des observatrices),
+ * puis des sections de tableaux primitifs écrites d'un bloc :
+ * - les sources du plateau, dans l'ordre des lignes : case, quantité de pollen, visites restantes et
+ *   pollinisatrice de chaque source (les cases vides ne sont pas écrites) ;
+ * - chaque colonne de l'`Essaim` (positions, directions, destinations, sources, `where`, `aVisite`,
+ *   `aSource`, flux pseudo-aléatoires...) ;
+ * - le registre des sources (coordonnées, qualité, sources épuisées) ;
+ * - un marqueur de fin.
+ *
+ * Les sections sont lues et écrites par projection mémoire du fichier (`FileChannel.map`), par morceaux
+ * d'au plus `MORCEAU` octets : une colonie d'un million d'abeilles se sauvegarde et se reprend en
+ * une fraction de seconde. La sauvegarde est écrite dans un fichier temporaire puis renommée, pour
+ * qu'un arrêt pendant l'écriture laisse intacte la sauvegarde précédente.
+ *
+ * Une simulation reprise continue exactement comme l'aurait fait la simulation sauvegardée (en mode séquentiel).
+ * La sauvegarde doit être faite entre deux ticks.
+ */
+public class Sauvegarde {
+
+    /** Signature du fichier ("ABEI") et version du format */
+    static final int MAGIQUE = 0x41424549, VERSION = 4;
+
+    /** Marqueur de fin de fichier ("FIN!") */
+    static final int FIN = 0x46494E21;
+
+    /** Taille de l'en-tête en octets */
+    static final int TAILLE_ENTETE = 128;
+
+    /** Taille maximale d'une projection en octets */
+    static final int MORCEAU = 1 << 26;
+
+    // Canal du fichier, sens du transfert et position de la prochaine section
+    private final FileChannel canal;
+    private final boolean ecriture;
+    private long position = 0;
+
+    /**
+     * Constructeur d'un transfert.
+     *
+     * @param canal    Le canal du fichier.
+     * @param ecriture true pour écrire, false pour lire.
+     */
+    private Sauvegarde(FileChannel canal, boolean ecriture) {
+        this.canal = canal;
+        this.ecriture = ecriture;
+    }
+
+    /**
+     * Sauvegarde l'état d'une simulation dans un fichier.
+     *
+     * @param sim     La simulation (entre deux ticks).
+     * @param fichier Le fichier de sauvegarde, remplacé s'il existe.
+     * @throws IOException si le fichier ne peut pas être écrit.
+     */
+    public static void ecrit(Simulation sim, Path fichier) throws IOException {
+        Path temporaire = fichier.resolveSibling(fichier.getFileName() + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporaire, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                                  StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            Sauvegarde s = new Sauvegarde(canal, true);
+            Tableau tab = sim.getMap();
+            Ruche r = sim.getRuche();
+            RegistreSources registre = r.getRegistre();
+
+            ByteBuffer entete = s.section(TAILLE_ENTETE);
+            entete.putInt(MAGIQUE).putInt(VERSION)
+                  .putInt(tab.getSize()).putInt(tab.getXruche()).putInt(tab.getYruche())
+                  .putInt(tab.getXCase()).putInt(tab.getYCase()).putInt(tab.getQttpolen())
+                  .putLong(tab.getAlea().getGraine()).putLong(tab.getAlea().getEtat())
+                  .putInt(r.getNbEclaireuse()).putInt(r.getNbEmployees()).putInt(r.getNbObservatrice())
+                  .putInt(r.getPollenRecolte()).putInt(r.getIndiceEmployees()).putInt(r.getIndiceEclaireuse())
+                  .putInt(sim.getMaxEmployees()).putInt(sim.getMaxObservatrice()).putInt(sim.getCpt())
+                  .putLong(sim.getNbTicks())
+                  .putInt(registre.size());
+            int[] cellules = tab.cellulesSources();
+            entete.putInt(cellules.length).putInt(tab.getRayon()).putInt(tab.isRoulette() ? 1 : 0);
+            s.force(entete);
+
+            s.corps(tab, cellules, r.getEssaim(), registre, registre.size());
+        }
+        Files.move(temporaire, fichier, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reprend une simulation depuis un fichier de sauvegarde.
+     *
+     * @param fichier Le fichier de sauvegarde.
+     * @return La simulation reprise, prête à continuer au tick suivant.
+     * @throws IOException si le fichier ne peut pas être lu ou n'est pas une sauvegarde valide.
+     */
+    public static Simulation lit(Path fichier) throws IOException {
+        try (FileChannel canal = FileChannel.open(fichier, StandardOpenOption.READ)) {
+            Sauvegarde s = new Sauvegarde(canal, false);
+
+            if (canal.size() < TAILLE_ENTETE) {
+                throw new IOException("Fichier de sauvegarde tronqué : " + fichier);
+            }
+            ByteBuffer entete = s.section(TAILLE_ENTETE);
+            if (entete.getInt() != MAGIQUE) {
+                throw new IOException("Ce fichier n'est pas une sauvegarde de simulation : " + fichier);
+            }
+            int version = entete.getInt();
+            if (version != VERSION) {
+                throw new IOException("Version de sauvegarde non prise en charge : " + version);
+            }
+            int size = entete.getInt(), xruche = entete.getInt(), yruche = entete.getInt();
+            int xcase = entete.getInt(), ycase = entete.getInt(), qttpolen = entete.getInt();
+            long graine = entete.getLong(), etat = entete.getLong();
+            int nbEcl = entete.getInt(), nbEmp = entete.getInt(), nbObs = entete.getInt();
+            int pollenRecolte = entete.getInt(), indiceEmp = entete.getInt(), indiceEcl = entete.getInt();
+            int maxEmp = entete.getInt(), maxObs = entete.getInt(), cpt = entete.getInt();
+            long nbTicks = entete.getLong();
+            int nbSources = entete.getInt(), nbCellules = entete.getInt(), rayon = entete.getInt();
+            boolean roulette = entete.getInt() != 0;
+
+            // Les flux des abeilles créés ici sont remplacés par ceux de la sauvegarde
+            Ruche r = new Ruche(nbEcl, nbEmp, nbObs, xruche * xcase, yruche * ycase, new Alea(graine));
+            Tableau tab = new Tableau(size, xruche, yruche, xcase, ycase, qttpolen, r, new Alea(graine, etat));
+            tab.setRayon(rayon);
+            tab.setRoulette(roulette);
+            Simulation sim = new Simulation(tab);
+            s.corps(tab, new int[nbCellules], r.getEssaim(), r.getRegistre(), nbSources);
+
+            r.ajoutePollen(pollenRecolte);
+            r.setIndiceEmployees(indiceEmp);
+            r.setIndiceEclaireuse(indiceEcl);
+            sim.restaure(maxEmp, maxObs, cpt, nbTicks);
+            return sim;
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | NegativeArraySizeException | BufferUnderflowException e) {
+            throw new IOException("Fichier de sauvegarde invalide : " + fichier, e);
+        }
+    }
+
+    /**
+     * Transfère toutes les sections qui suivent l'en-tête, dans le sens du transfert :
+     * les mêmes instructions définissent le format en écriture et en lecture.
+     *
+     * @param tab       Le plateau.
+     * @param cellules  Les cases des sources du plateau (y * taille + x), remplies à la lecture.
+     * @param essaim    L'essaim de la ruche.
+     * @param registre  Le registre des sources.
+     * @param nbSources Le nombre de sources enregistrées.
+     * @throws IOException si le fichier ne peut pas être lu ou écrit.
+     */
+    private void corps(Tableau tab, int[] cellules, Essaim essaim, RegistreSources registre, int nbSources) throws IOException {
+        // Sources du plateau, par groupes : case, quantité, visites restantes et pollinisatrice de chaque source
+        Grille grille = tab.getGrille();
+        int size = tab.getSize();
+        for (int debut = 0; debut < cellules.length; ) {
+            int m = Math.min(cellules.length - debut, MORCEAU / 16);
+            ByteBuffer b = section(16L * m);
+            for (int k = debut; k < debut + m; k++) {
+                if (ecriture) {
+                    int x = cellules[k] % size, y = cellules[k] / size;
+                    b.putInt(cellules[k]).putInt(grille.getQtt(x, y)).putInt(grille.getEssais(x, y))
+                     .putInt(grille.getPollinisatrice(x, y));
+                } else {
+                    cellules[k] = b.getInt();
+                    if (cellules[k] < 0) {
+                        throw new IOException("Case de source invalide : " + cellules[k]);
+                    }
+                    int x = cellules[k] % size, y = cellules[k] / size;
+                    tab.ajouteSource(x, y, b.getInt(), b.getInt());
+                    grille.setPollinisatrice(x, y, b.getInt());
+                }
+            }
+            if (ecriture) {
+                force(b);
+            }
+            debut += m;
+        }
+
+        // Colonnes de l'essaim
+        int nb = essaim.size();
+        reels(essaim.x, nb);
+        reels(essaim.y, nb);
+        reels(essaim.dx, nb);
+        reels(essaim.dy, nb);
+        reels(essaim.v, nb);
+        entiers(essaim.destX, nb);
+        entiers(essaim.destY, nb);
+        entiers(essaim.xSource, nb);
+        entiers(essaim.ySource, nb);
+        entiers(essaim.pollenAssocie, nb);
+        octets(essaim.role, nb);
+        octets(essaim.where, nb);
+        booleens(essaim.aVisite, nb);
+        booleens(essaim.aSource, nb);
+        longs(essaim.alea, nb);
+
+        // Registre des sources (réenregistrées dans le même ordre, donc avec les mêmes indices)
+        int[] xs = new int[nbSources], ys = new int[nbSources], qualites = new int[nbSources];
+        boolean[] epuisees = new boolean[nbSources];
+        if (ecriture) {
+            for (int k = 0; k < nbSources; k++) {
+                xs[k] = registre.getX(k);
+                ys[k] = registre.getY(k);
+                qualites[k] = registre.getQualite(k);
+                epuisees[k] = registre.estEpuisee(k);
+            }
+        }
+        entiers(xs, nbSources);
+        entiers(ys, nbSources);
+        entiers(qualites, nbSources);
+        booleens(epuisees, nbSources);
+        if (!ecriture) {
+            for (int k = 0; k < nbSources; k++) {
+                registre.enregistre(xs[k], ys[k]);
+                registre.setQualite(k, qualites[k]);
+                if (epuisees[k]) {
+                    registre.retire(k);
+                }
+            }
+        }
+
+        // Marqueur de fin
+        ByteBuffer fin = section(4);
+        if (ecriture) {
+            fin.putInt(FIN);
+            force(fin);
+        } else if (fin.getInt() != FIN) {
+            throw new IOException("Fichier de sauvegarde incomplet");
+        }
+    }
+
+    /**
+     * Projette la prochaine section du fichier en mémoire.
+     *
+     * @param octets La taille de la section (au plus `MORCEAU`).
+     * @return La section projetée.
+     * @throws IOException si la section dépasse la fin du fichier en lecture.
+     */
+    private ByteBuffer section(long octets) throws IOException {
+        if (!ecriture && position + octets > canal.size()) {
+            throw new IOException("Fichier de sauvegarde tronqué");
+        }
+        ByteBuffer b = canal.map(ecriture ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY, position, octets)
+                            .order(ByteOrder.LITTLE_ENDIAN);
+        position += octets;
+        return b;
+    }
+
+    /**
+     * Écrit sur le disque une section projetée en écriture.
+     *
+     * @param b La section.
+     */
+    private void force(ByteBuffer b) {
+        if (b instanceof MappedByteBuffer) {
+            ((MappedByteBuffer) b).force();
+        }
+    }
+
+    /**
+     * Transfère les n premiers éléments d'un tableau d'entiers.
+     */
+    private void entiers(int[] t, int n) throws IOException {
+        for (int debut = 0; debut < n; ) {
+            int m = Math.min(n - debut, MORCEAU / 4);
+            ByteBuffer b = section(m * 4L);
+            if (ecriture) {
+                b.asIntBuffer().put(t, debut, m);
+                force(b);
+            } else {
+                b.asIntBuffer().get(t, debut, m);
+            }
+            debut += m;
+        }
+    }
+
+    /**
+     * Transfère les n premiers éléments d'un tableau de réels.
+     */
+    private void reels(float[] t, int n) throws IOException {
+        for (int debut = 0; debut < n; ) {
+            int m = Math.min(n - debut, MORCEAU / 4);
+            ByteBuffer b = section(m * 4L);
+            if (ecriture) {
+                b.asFloatBuffer().put(t, debut, m);
+                force(b);
+            } else {
+                b.asFloatBuffer().get(t, debut, m);
+            }
+            debut += m;
+        }
+    }
+
+    /**
+     * Transfère les n premiers éléments d'un tableau d'entiers longs.
+     */
+    private void longs(long[] t, int n) throws IOException {
+        for (int debut = 0; debut < n; ) {
+            int m = Math.min(n - debut, MORCEAU / 8);
+            ByteBuffer b = section(m * 8L);
+            if (ecriture) {
+                b.asLongBuffer().put(t, debut, m);
+                force(b);
+            } else {
+                b.asLongBuffer().get(t, debut, m);
+            }
+            debut += m;
+        }
+    }
+
+    /**
+     * Transfère les n premiers éléments d'un tableau d'octets.
+     */
+    private void octets(byte[] t, int n) throws IOException {
+        for (int debut = 0; debut < n; ) {
+            int m = Math.min(n - debut, MORCEAU);
+            ByteBuffer b = section(m);
+            if (ecriture) {
+                b.put(t, debut, m);
+                force(b);
+            } else {
+                b.get(t, debut, m);
+            }
+            debut += m;
+        }
+    }
+
+    /**
+     * Transfère les n premiers éléments d'un tableau de booléens (un octet par booléen).
+     */
+    private void booleens(boolean[] t, int n) throws IOException {
+        byte[] tampon = new byte[Math.min(n, MORCEAU)];
+        for (int debut = 0; debut < n; ) {
+            int m = Math.min(n - debut, MORCEAU);
+            ByteBuffer b = section(m);
+            if (ecriture) {
+                for (int k = 0; k < m; k++) {
+                    tampon[k] = (byte) (t[debut + k] ? 1 : 0);
+                }
+                b.put(tampon, 0, m);
+                force(b);
+            } else {
+                b.get(tampon, 0, m);
+                for (int k = 0; k < m; k++) {
+                    t[debut + k] = tampon[k] != 0;
+                }
+            }
+            debut += m;
+        }
+    }
+}
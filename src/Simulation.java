@@ -0,0 +1,309 @@
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Représente le déroulement d'une simulation, indépendamment de tout affichage.
+ * La classe regroupe les compteurs qui étaient auparavant locaux à `App.run` et fait avancer
+ * la colonie d'un pas de temps (un tick) à chaque appel de `tick()`.
+ *
+ * Elle est utilisée aussi bien par la boucle graphique que par le mode sans interface.
+ *
+ * Si un `ForkJoinPool` est fourni, chacune des trois phases du tick (éclaireuses, employées, observatrices)
+ * est répartie sur les threads du pool ; les phases restent exécutées l'une après l'autre.
+ *
+ * En mode événementiel (`setEvenementiel`), les phases ne font agir que les abeilles dont une action
+ * est programmée à ce tick (voir `Evenements`), et `execute` saute directement d'un tick ayant des
+ * événements au suivant.
+ */
+public class Simulation {
+
+    // Plateau de la simulation et ruche associée
+    private Tableau map;
+    private Ruche r;
+    private Essaim essaim;
+
+    private int maxEmployees;    // Nombre maximal d'employés actifs à un moment donné
+    private int base;            // Indice de la première observatrice
+    private int maxObservatrice; // Nombre maximal d'observatrices actives à un moment donné
+    private int cpt = 0;         // Compteur pour l'activation des observatrices
+
+    // Nombre de ticks effectués depuis le début de la simulation
+    private long nbTicks = 0;
+
+    // Pool utilisé pour le tick parallèle (null : tick séquentiel)
+    private ForkJoinPool pool = null;
+
+    // Mesures des durées des phases (null : aucune mesure)
+    private Mesures mesures = null;
+
+    // Moteur à événements (null : toutes les abeilles actives agissent à chaque tick)
+    private Evenements evenements = null;
+
+    /**
+     * Constructeur de la simulation.
+     * Envoie les éclaireuses vers leurs premières destinations aléatoires.
+     *
+     * @param map Le plateau sur lequel se déroule la simulation.
+     */
+    public Simulation(Tableau map) {
+        this.map = map;
+        this.r = map.getRuche();
+        this.essaim = r.getEssaim();
+
+        // Initialisation des éclaireuses et de la simulation
+        r.goCaseEclaireuses(map);
+
+        maxEmployees = r.getNbEclaireuse();
+        base = maxEmployees + r.getNbEmployees();
+        maxObservatrice = base;
+    }
+
+    /**
+     * Fait avancer la simulation d'un tick : action des éclaireuses, puis des employées, puis des observatrices.
+     * En mode événementiel, les positions de toutes les abeilles sont ensuite calculées pour l'affichage.
+     */
+    public void tick() {
+        avance(nbTicks + 1);
+        if (evenements != null) {
+            evenements.synchronise(nbTicks);
+        }
+    }
+
+    /**
+     * Effectue le tick t (le tick suivant, ou en mode événementiel le prochain tick ayant des événements).
+     *
+     * @param t Le numéro du tick.
+     */
+    private void avance(long t) {
+        if (essaim.journal != null) {
+            essaim.journal.debutTick(t);
+        }
+        Mesures m = mesures;
+        long t0 = m != null ? System.nanoTime() : 0;
+
+        // Action des éclaireuses : chaque nouvelle source trouvée active une employée
+        maxEmployees += phase(Essaim.ECLAIREUSE, 0, r.getNbEclaireuse(), t);
+        long t1 = m != null ? System.nanoTime() : 0;
+
+        // Action des employés (qui rapportent du pollen)
+        int retours = phase(Essaim.EMPLOYEE, r.getNbEclaireuse(), maxEmployees, t);
+        if (retours > 0) {
+            cpt += retours;
+            // Active un certain nombre d'observatrices en fonction du nombre d'employés
+            maxObservatrice = (int) (((long) cpt * r.getNbObservatrice()) / r.getNbEmployees()) + base;
+        }
+        long t2 = m != null ? System.nanoTime() : 0;
+
+        // Action des observatrices
+        phase(Essaim.OBSERVATRICE, base, maxObservatrice, t);
+
+        nbTicks = t;
+        if (m != null) {
+            long t3 = System.nanoTime();
+            m.eclaireuses.enregistre(t1 - t0);
+            m.employees.enregistre(t2 - t1);
+            m.observatrices.enregistre(t3 - t2);
+            m.tick.enregistre(t3 - t0);
+            m.finTick(this, t3);
+        }
+    }
+
+    /**
+     * Fait avancer la simulation jusqu'à ce qu'elle soit terminée ou qu'elle ait effectué `maxTicks` ticks.
+     * S'arrête aussi si le thread courant est interrompu.
+     *
+     * @param maxTicks Le nombre maximal de ticks depuis le début de la simulation.
+     * @return true si l'objectif de récolte est atteint.
+     */
+    public boolean execute(long maxTicks) {
+        if (evenements == null) {
+            while (!estTerminee() && nbTicks < maxTicks) {
+                tick();
+                if ((nbTicks & 1023) == 0 && Thread.currentThread().isInterrupted()) {
+                    break;
+                }
+            }
+            return estTerminee();
+        }
+
+        // Mode événementiel : les ticks sans événement ne changent rien, on les saute
+        for (long n = 1; !estTerminee() && nbTicks < maxTicks; n++) {
+            long t = evenements.prochainTick();
+            if (t > maxTicks) {
+                nbTicks = maxTicks;
+                break;
+            }
+            avance(t);
+            if ((n & 1023) == 0 && Thread.currentThread().isInterrupted()) {
+                break;
+            }
+        }
+        evenements.synchronise(nbTicks);
+        return estTerminee();
+    }
+
+    /**
+     * Exécute une phase du tick sur une plage d'abeilles, en parallèle si un pool est défini
+     * et que la plage est assez grande pour être découpée (en mode événementiel, seulement pour
+     * les abeilles de la plage ayant une action programmée à ce tick).
+     *
+     * @param role  Le rôle des abeilles de la plage.
+     * @param debut Le premier identifiant de la plage.
+     * @param fin   L'identifiant suivant le dernier de la plage.
+     * @param t     Le numéro du tick.
+     * @return Le nombre d'abeilles ayant réussi leur objectif.
+     */
+    private int phase(byte role, int debut, int fin, long t) {
+        if (evenements != null) {
+            return evenements.phase(role, fin, t);
+        }
+        if (pool != null && fin - debut > TacheTick.SEUIL) {
+            return pool.invoke(new TacheTick(essaim, map, role, debut, fin));
+        }
+        if (role == Essaim.ECLAIREUSE) {
+            return essaim.tickEclaireuses(debut, fin, map);
+        } else if (role == Essaim.EMPLOYEE) {
+            return essaim.tickEmployees(debut, fin, map);
+        }
+        essaim.tickObservatrices(debut, fin, map);
+        return 0;
+    }
+
+    /**
+     * Active le tick parallèle sur le pool donné, ou revient au tick séquentiel.
+     *
+     * @param var Le pool à utiliser (null pour un tick séquentiel).
+     */
+    public void setPool(ForkJoinPool var) {
+        pool = var;
+    }
+
+    /**
+     * Passe au mode événementiel, où seules agissent les abeilles dont une action est programmée
+     * (voir `Evenements`), ou revient au tick par tick. Le mode événementiel est séquentiel :
+     * le pool éventuel n'est pas utilisé.
+     *
+     * @param var true pour le mode événementiel.
+     */
+    public void setEvenementiel(boolean var) {
+        evenements = var ? new Evenements(this) : null;
+    }
+
+    /**
+     * Mesure la durée des phases de chaque tick et publie l'état de la simulation, ou arrête de le faire.
+     *
+     * @param var Les mesures (null pour ne plus mesurer).
+     */
+    public void setMesures(Mesures var) {
+        mesures = var;
+    }
+
+    /**
+     * Retourne les mesures de la simulation.
+     *
+     * @return Les mesures, ou null si la simulation n'est pas mesurée.
+     */
+    public Mesures getMesures() {
+        return mesures;
+    }
+
+    /**
+     * Enregistre les événements de la simulation dans un journal, ou arrête de les enregistrer.
+     *
+     * @param var Le journal (null pour ne plus enregistrer).
+     */
+    public void setJournal(Journal var) {
+        essaim.journal = var;
+    }
+
+    /**
+     * Indique si la simulation est terminée, c'est-à-dire si 85% du pollen a été récolté dans la ruche.
+     *
+     * @return true si l'objectif de récolte est atteint.
+     */
+    public boolean estTerminee() {
+        return r.getPollenRecolte() >= map.getQttpolen() * 0.85;
+    }
+
+    /**
+     * Affiche les coordonnées et la qualité des sources observées, puis le pollen récolté.
+     */
+    public void afficheResultats() {
+        // Affichage des coordonnées et de la qualité des sources observées
+        RegistreSources sources = r.getRegistre();
+        for (int i = 0; i < sources.size(); i++) {
+            System.out.println(sources.getX(i) + "   " + sources.getY(i) + "   " + sources.getQualite(i) + "   ");
+        }
+
+        // Affichage du pollen récolté et du pollen total
+        System.out.println("Pollen récolté: " + r.getPollenRecolte() + "  Pollen total: " + map.getQttpolen());
+    }
+
+    /**
+     * Retourne le plateau de la simulation.
+     *
+     * @return Le plateau.
+     */
+    public Tableau getMap() {
+        return map;
+    }
+
+    /**
+     * Retourne la ruche de la simulation.
+     *
+     * @return La ruche.
+     */
+    public Ruche getRuche() {
+        return r;
+    }
+
+    /**
+     * Retourne le nombre de ticks effectués.
+     *
+     * @return Le nombre de ticks.
+     */
+    public long getNbTicks() {
+        return nbTicks;
+    }
+
+    /**
+     * Retourne le nombre de retours d'employées à la ruche, qui détermine le nombre d'observatrices actives.
+     *
+     * @return Le nombre de retours d'employées.
+     */
+    int getCpt() {
+        return cpt;
+    }
+
+    /**
+     * Remet les compteurs de la simulation dans un état sauvegardé (voir `Sauvegarde`).
+     *
+     * @param maxEmployees    L'indice de fin des employées actives.
+     * @param maxObservatrice L'indice de fin des observatrices actives.
+     * @param cpt             Le nombre de retours d'employées.
+     * @param nbTicks         Le nombre de ticks effectués.
+     */
+    void restaure(int maxEmployees, int maxObservatrice, int cpt, long nbTicks) {
+        this.maxEmployees = maxEmployees;
+        this.maxObservatrice = maxObservatrice;
+        this.cpt = cpt;
+        this.nbTicks = nbTicks;
+    }
+
+    /**
+     * Retourne le nombre d'employées actives (indice de fin de la plage des employées).
+     *
+     * @return L'indice de fin des employées actives.
+     */
+    public int getMaxEmployees() {
+        return maxEmployees;
+    }
+
+    /**
+     * Retourne l'indice de fin de la plage des observatrices actives.
+     *
+     * @return L'indice de fin des observatrices actives.
+     */
+    public int getMaxObservatrice() {
+        return maxObservatrice;
+    }
+}
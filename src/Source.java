@@ -2,24 +2,24 @@
  * Représente une source de pollen dans le système de simulation.
  * Une source de pollen possède une quantité de pollen disponible et un nombre d'essais, c'est-à-dire le nombre de visites autorisées.
  * Les abeilles peuvent visiter cette source pour collecter du pollen, jusqu'à ce que le nombre d'essais soit épuisé.
+ *
+ * L'état de la source est rangé dans les tableaux de la `Grille` du plateau : un objet `Source` n'est qu'une vue
+ * sur une case, créée à la demande par `Tableau.getCase` (les abeilles lisent directement la grille).
  */
 public class Source extends Case {
-    // Nombre de visites restantes pour cette source
-    private int nbEssaie;
+    // Grille du plateau portant la source
+    private final Grille grille;
 
     /**
-     * Constructeur de la source de pollen.
-     * Initialise la source avec une quantité de pollen donnée, une position sur le plateau et un nombre d'essais.
-     * 
-     * @param qttpolen La quantité de pollen disponible dans la source
-     * @param x1       La coordonnée X de la source
-     * @param y1       La coordonnée Y de la source
-     * @param es       Le nombre d'essais (visites autorisées) pour cette source
+     * Constructeur d'une vue sur une source de pollen.
+     *
+     * @param grille La grille du plateau
+     * @param x1     La coordonnée X de la source (en matrice)
+     * @param y1     La coordonnée Y de la source (en matrice)
      */
-    public Source(int qttpolen, int x1, int y1, int es) {
+    public Source(Grille grille, int x1, int y1) {
         super(x1, y1); // Position de la source sur le plateau
-        qtt = qttpolen; // Quantité de pollen disponible
-        nbEssaie = es;  // Nombre d'essais (visites autorisées)
+        this.grille = grille;
     }
 
     /**
@@ -27,7 +27,7 @@ public class Source extends Case {
      * Cette méthode est utilisée pour représenter la source sur le plateau.
      */
     void aff() {
-        System.out.print(qtt + " ");
+        System.out.print(getQtt() + " ");
     }
 
     /**
@@ -49,6 +49,52 @@ public class Source extends Case {
         return null;
     }
 
+    /**
+     * Retourne la quantité de pollen de la source.
+     *
+     * @return La quantité de pollen
+     */
+    public int getQtt() {
+        return grille.getQtt(x, y);
+    }
+
+    /**
+     * Modifie la quantité de pollen de la source.
+     *
+     * @param n La nouvelle quantité de pollen
+     */
+    public void setQtt(int n) {
+        grille.setQtt(x, y, n);
+    }
+
+    /**
+     * Retourne l'abeille pollinisatrice associée à la source.
+     *
+     * @return L'identifiant de l'abeille (-1 si aucune abeille associée)
+     */
+    public int getPollinisatrice() {
+        return grille.getPollinisatrice(x, y);
+    }
+
+    /**
+     * Associe une abeille pollinisatrice à la source.
+     *
+     * @param a L'identifiant de l'abeille
+     */
+    public void setPollinisatrice(int a) {
+        grille.setPollinisatrice(x, y, a);
+    }
+
+    /**
+     * Associe l'abeille à la source seulement si aucune abeille n'y est encore associée (de façon atomique).
+     *
+     * @param a L'identifiant de l'abeille qui revendique la source
+     * @return true si la source a été associée à l'abeille
+     */
+    public boolean revendique(int a) {
+        return grille.revendique(x, y, a);
+    }
+
     /**
      * Retourne le nombre d'essais restants pour cette source.
      * Un essai correspond à une visite autorisée de la source par une abeille.
@@ -56,7 +102,7 @@ public class Source extends Case {
      * @return Le nombre d'essais restants
      */
     public int GetEssaie() {
-        return nbEssaie;
+        return grille.getEssais(x, y);
     }
 
     /**
@@ -65,6 +111,22 @@ public class Source extends Case {
      * @param var Le nouveau nombre d'essais à définir
      */
     public void setEssaie(int var) {
-        nbEssaie = var;
+        grille.setEssais(x, y, var);
+    }
+
+    /**
+     * Retire un essai à la source de façon atomique, sans vérifier qu'il en reste.
+     */
+    public void decrementeEssaie() {
+        grille.decrementeEssais(x, y);
+    }
+
+    /**
+     * Retire un essai à la source de façon atomique s'il en reste au moins un.
+     * 
+     * @return true si un essai a été pris
+     */
+    public boolean prendEssai() {
+        return grille.prendEssai(x, y);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,73 @@
+/**
+ * Moyenne et variance d'une suite de mesures, calculées au fil de l'eau (algorithme de Welford),
+ * sans conserver les mesures et sans perte de précision quand la moyenne est grande devant l'écart-type.
+ */
+public class Statistiques {
+
+    // Nombre de mesures, moyenne courante et somme des carrés des écarts à la moyenne
+    private long n = 0;
+    private double moyenne = 0;
+    private double m2 = 0;
+
+    /**
+     * Ajoute une mesure.
+     *
+     * @param x La mesure.
+     */
+    public void ajoute(double x) {
+        n++;
+        double ecart = x - moyenne;
+        moyenne += ecart / n;
+        m2 += ecart * (x - moyenne);
+    }
+
+    /**
+     * Retourne le nombre de mesures.
+     *
+     * @return Le nombre de mesures.
+     */
+    public long getN() {
+        return n;
+    }
+
+    /**
+     * Retourne la moyenne des mesures.
+     *
+     * @return La moyenne (0 sans mesure).
+     */
+    public double getMoyenne() {
+        return moyenne;
+    }
+
+    /**
+     * Retourne la variance empirique (non biaisée) des mesures.
+     *
+     * @return La variance (0 avec moins de deux mesures).
+     */
+    public double getVariance() {
+        return n < 2 ? 0 : m2 / (n - 1);
+    }
+
+    /**
+     * Retourne la demi-largeur de l'intervalle de confiance de la moyenne (approximation normale).
+     *
+     * @param z Le quantile de la loi normale correspondant au niveau de confiance (1,96 pour 95%).
+     * @return La demi-largeur de l'intervalle (infinie avec moins de deux mesures).
+     */
+    public double demiLargeur(double z) {
+        return n < 2 ? Double.POSITIVE_INFINITY : z * Math.sqrt(getVariance() / n);
+    }
+
+    /**
+     * Calcule le quantile de la loi normale centrée réduite pour un intervalle de confiance bilatéral
+     * (approximation d'Abramowitz et Stegun 26.2.23, erreur inférieure à 5e-4).
+     *
+     * @param confiance Le niveau de confiance, entre 0 et 1 exclus (par exemple 0,95).
+     * @return Le quantile z tel que P(|Z| < z) = confiance.
+     */
+    public static double quantileNormal(double confiance) {
+        double p = (1 - confiance) / 2;
+        double t = Math.sqrt(-2 * Math.log(p));
+        return t - (2.515517 + 0.802853 * t + 0.010328 * t * t) / (1 + 1.432788 * t + 0.189269 * t * t + 0.001308 * t * t * t);
+    }
+}
@@ -1,14 +1,28 @@
 /**
  * Représente le plateau de la simulation, incluant la ruche, les sources de pollen et les abeilles.
  * Le tableau est une grille où chaque case peut contenir soit la ruche, soit une source de pollen.
+ * Les sources sont rangées dans les tableaux primitifs d'une `Grille`, où les cases vides n'occupent pas de mémoire ;
+ * `getCase` en donne une vue objet (`Source` ou `Ruche`) pour les usages qui ne sont pas critiques.
  * Le tableau gère la répartition des sources de pollen, le placement des abeilles et les interactions entre ces éléments.
  */
 public class Tableau {
+
+    /** Rayon par défaut du voisinage dans lequel une employée cherche une meilleure source (7x7 cases) */
+    static final int RAYON_DEFAUT = 3;
+
+    /** Pas par défaut des abeilles (pixels parcourus par tick) */
+    static final int PAS_DEFAUT = 5;
+
     private int size;       // Taille du plateau (en nombre de cases)
     private int Xruche, Yruche;  // Coordonnées de la ruche sur le plateau
-    private Case[][] plateau;    // Le plateau contenant les cases (source de pollen ou ruche)
+    private Grille plateau;      // Les sources de pollen du plateau
+    private Ruche ruche;         // La ruche
     private int XCase, YCase;    // Taille en pixels de chaque case
     private int qttpolen;        // Quantité totale de pollen disponible dans le tableau
+    private boolean verbeux = true; // Affiche les messages des abeilles sur la sortie standard
+    private int rayon = RAYON_DEFAUT; // Rayon du voisinage exploré par les employées (en cases)
+    private boolean roulette = false; // Les observatrices tirent leur source à la roulette au lieu du choix glouton
+    private final Alea alea;     // Générateur pseudo-aléatoire de la simulation
 
     /**
      * Constructeur de la classe Tableau.
@@ -25,65 +39,184 @@ public class Tableau {
      * @param es            Nombre d'essais (visites autorisées) pour chaque source
      */
     public Tableau(int size, int nbsource, int qttpolen, int nbObservatrice, int nbEclaireuse, int h, int w, int es) {
+        this(size, nbsource, qttpolen, nbObservatrice, nbEclaireuse, h, w, es, new Alea(Alea.graineAleatoire()));
+    }
+
+    /**
+     * Constructeur de la classe Tableau avec un générateur pseudo-aléatoire donné.
+     * Le plateau est généré avec le flux principal du générateur, et chaque abeille reçoit un flux dérivé :
+     * deux plateaux créés avec la même graine et les mêmes paramètres sont identiques, ainsi que
+     * les simulations séquentielles qui s'y déroulent.
+     * 
+     * @param size          Taille du plateau en termes de nombre de cases
+     * @param nbsource      Nombre de sources de pollen à générer
+     * @param qttpolen      Quantité totale de pollen à répartir dans le plateau
+     * @param nbObservatrice Nombre d'abeilles observatrices
+     * @param nbEclaireuse   Nombre d'abeilles éclaireuses
+     * @param h             Hauteur en pixels du plateau
+     * @param w             Largeur en pixels du plateau
+     * @param es            Nombre d'essais (visites autorisées) pour chaque source
+     * @param alea          Le générateur pseudo-aléatoire de la simulation
+     */
+    public Tableau(int size, int nbsource, int qttpolen, int nbObservatrice, int nbEclaireuse, int h, int w, int es, Alea alea) {
+        this.alea = alea;
         this.qttpolen = qttpolen;
         XCase = w / size;          // Calcul de la taille d'une case en pixels pour X
         YCase = (h - 20) / size;   // Calcul de la taille d'une case en pixels pour Y (ajuste pour une bande blanche)
         this.size = size;
-        this.plateau = new Case[size][size];
+        this.plateau = new Grille(size);
         double qtt = 0;
 
         // Position aléatoire pour la ruche
-        int x = (int) (Math.random() * size);
-        int y = (int) (Math.random() * size);
-        plateau[y][x] = new Ruche(nbEclaireuse, nbsource, nbObservatrice, x * XCase, y * YCase);
+        int x = (int) (alea.suivant() * size);
+        int y = (int) (alea.suivant() * size);
+        ruche = new Ruche(nbEclaireuse, nbsource, nbObservatrice, x * XCase, y * YCase, alea);
         Xruche = x;
         Yruche = y;
 
-        // Remplir le plateau avec des sources de pollen vides
-        for (int i = 0; i < size; i++) {
-            for (int j = 0; j < size; j++) {
-                // Si la case n'est pas la ruche, elle devient une source vide
-                if (plateau[i][j] == null) {
-                    plateau[i][j] = new Source(0, j, i, es);
-                }
-            }
-        }
-
-        // Répartition des sources de pollen (nbsource - 1 sources)
-        while (nbsource > 1) {
-            // Sélection d'une position aléatoire pour la source
-            x = (int) (Math.random() * size);
-            y = (int) (Math.random() * size);
-
-            // Vérification que la case n'est pas la ruche et n'est pas déjà remplie
-            // Elle doit être en dehors d'un rayon de 2 autour de la ruche
-            while ((plateau[y][x] instanceof Ruche) || (plateau[y][x].getQtt() != 0) || 
-                   ((Math.abs(x - Xruche) < 3) && (Math.abs(y - Yruche) < 3))) {
-                x = (int) (Math.random() * size);
-                y = (int) (Math.random() * size);
-            }
+        // Tirage des cases des sources, toutes distinctes et en dehors d'un rayon de 2 autour de la ruche
+        long[] cellules = tireCellules(nbsource);
 
+        // Répartition du pollen (nbsource - 1 sources), puis le reste du pollen dans la dernière source
+        for (int k = 0; k < cellules.length - 1; k++) {
             // Définir la quantité de pollen pour cette source
-            qtt = Math.random() / 4;
+            qtt = alea.suivant() / 4;
             qtt = qtt * (qttpolen - nbsource + 1) + 1;
-            plateau[y][x].setQtt((int) qtt);
+            ajouteSource((int) (cellules[k] % size), (int) (cellules[k] / size), (int) qtt, es);
             qttpolen -= (int) qtt;   // Mettre à jour la quantité de pollen restante
             nbsource -= 1;            // Réduire le nombre de sources à générer
         }
+        long derniere = cellules[cellules.length - 1];
+        ajouteSource((int) (derniere % size), (int) (derniere / size), qttpolen, es);
+    }
 
-        // Dernière source de pollen (on place le reste du pollen)
-        x = (int) (Math.random() * size);
-        y = (int) (Math.random() * size);
+    /**
+     * Tire n cases distinctes parmi les cases éligibles (hors du carré de 5x5 cases centré sur la ruche),
+     * par l'algorithme d'échantillonnage sans remise de Floyd, puis les mélange.
+     * Le coût ne dépend que de n, et pas de la proportion de cases déjà prises :
+     * un plateau presque entièrement couvert de sources se génère aussi vite qu'un plateau clairsemé.
+     * 
+     * @param n Le nombre de cases à tirer (au plus le nombre de cases éligibles).
+     * @return Les cases tirées (y * size + x), dans un ordre aléatoire.
+     */
+    private long[] tireCellules(int n) {
+        // Carré exclu autour de la ruche, limité au plateau
+        int x0 = Math.max(0, Xruche - 2), x1 = Math.min(size - 1, Xruche + 2);
+        int y0 = Math.max(0, Yruche - 2), y1 = Math.min(size - 1, Yruche + 2);
+        long largeurExclue = x1 - x0 + 1;
+        long eligibles = (long) size * size - largeurExclue * (y1 - y0 + 1);
+
+        // Floyd : pour j de E-n à E-1, on tire t dans [0, j] et on prend t, ou j si t est déjà pris
+        long[] rangs = new long[n];
+        EnsembleLongs pris = new EnsembleLongs(n);
+        int k = 0;
+        for (long j = eligibles - n; j < eligibles; j++) {
+            long t = (long) (alea.suivant() * (j + 1));
+            if (!pris.ajoute(t)) {
+                // j n'a pas encore pu être pris : toutes les valeurs tirées avant sont inférieures à j
+                t = j;
+                pris.ajoute(j);
+            }
+            rangs[k++] = t;
+        }
 
-        // Vérifier que la case n'est pas la ruche et n'est pas déjà remplie
-        while (plateau[y][x] instanceof Ruche || plateau[y][x].getQtt() != 0 || 
-               ((Math.abs(x - Xruche) < 3) && (Math.abs(y - Yruche) < 3))) {
-            x = (int) (Math.random() * size);
-            y = (int) (Math.random() * size);
+        // Mélange (Fisher-Yates), pour que la quantité de pollen ne dépende pas de la position
+        for (int i = n - 1; i > 0; i--) {
+            int r = (int) (alea.suivant() * (i + 1));
+            long tmp = rangs[i];
+            rangs[i] = rangs[r];
+            rangs[r] = tmp;
         }
 
-        // Mettre le reste du pollen dans cette dernière source
-        plateau[y][x].setQtt(qttpolen);
+        // Rang parmi les cases éligibles -> case du plateau (en sautant le carré exclu)
+        long avant = (long) y0 * size, bande = (y1 - y0 + 1) * (size - largeurExclue);
+        for (int i = 0; i < n; i++) {
+            long rang = rangs[i];
+            if (rang < avant) {
+                continue;
+            }
+            rang -= avant;
+            if (rang < bande) {
+                long ligne = y0 + rang / (size - largeurExclue), colonne = rang % (size - largeurExclue);
+                rangs[i] = ligne * size + (colonne < x0 ? colonne : colonne + largeurExclue);
+            } else {
+                rangs[i] = (long) (y1 + 1) * size + (rang - bande);
+            }
+        }
+        return rangs;
+    }
+
+    /**
+     * Ensemble d'entiers longs positifs à adressage ouvert, sans allocation par élément.
+     */
+    private static final class EnsembleLongs {
+        private final long[] cles;
+        private final int masque;
+
+        EnsembleLongs(int capacite) {
+            int n = Integer.highestOneBit(Math.max(2, capacite) * 2 - 1) << 1;
+            cles = new long[n];
+            java.util.Arrays.fill(cles, -1);
+            masque = n - 1;
+        }
+
+        /**
+         * Ajoute une valeur.
+         * 
+         * @param v La valeur (positive ou nulle).
+         * @return true si la valeur a été ajoutée, false si elle était déjà présente.
+         */
+        boolean ajoute(long v) {
+            int pos = (int) (Alea.melange(v) & masque);
+            while (cles[pos] != -1) {
+                if (cles[pos] == v) {
+                    return false;
+                }
+                pos = (pos + 1) & masque;
+            }
+            cles[pos] = v;
+            return true;
+        }
+    }
+
+    /**
+     * Constructeur d'un plateau repris depuis une sauvegarde (voir `Sauvegarde`).
+     * Le plateau ne contient que la ruche : les sources sont ajoutées ensuite par la reprise.
+     * 
+     * @param size     Taille du plateau en termes de nombre de cases
+     * @param xruche   Coordonnée X de la ruche (en matrice)
+     * @param yruche   Coordonnée Y de la ruche (en matrice)
+     * @param XCase    Taille d'une case en pixels sur l'axe X
+     * @param YCase    Taille d'une case en pixels sur l'axe Y
+     * @param qttpolen Quantité totale de pollen du plateau
+     * @param ruche    La ruche
+     * @param alea     Le générateur pseudo-aléatoire, dans son état sauvegardé
+     */
+    Tableau(int size, int xruche, int yruche, int XCase, int YCase, int qttpolen, Ruche ruche, Alea alea) {
+        this.alea = alea;
+        this.qttpolen = qttpolen;
+        this.XCase = XCase;
+        this.YCase = YCase;
+        this.size = size;
+        this.plateau = new Grille(size);
+        Xruche = xruche;
+        Yruche = yruche;
+        this.ruche = ruche;
+    }
+
+    /**
+     * Crée une source de pollen sur une case vide.
+     * 
+     * @param mx       Coordonnée x de la case (en matrice)
+     * @param my       Coordonnée y de la case (en matrice)
+     * @param qttpolen La quantité de pollen de la source
+     * @param es       Le nombre d'essais (visites autorisées) de la source
+     */
+    void ajouteSource(int mx, int my, int qttpolen, int es) {
+        if (mx == Xruche && my == Yruche) {
+            throw new IllegalArgumentException("Case déjà occupée par la ruche : (" + mx + ", " + my + ")");
+        }
+        plateau.ajoute(mx, my, qttpolen, es);
     }
 
     /**
@@ -93,7 +226,12 @@ public class Tableau {
     void affTableau() {
         for (int i = 0; i < size; i++) {
             for (int j = 0; j < size; j++) {
-                this.plateau[i][j].aff();
+                Case c = getCase(j, i);
+                if (c != null) {
+                    c.aff();
+                } else {
+                    System.out.print("0 ");
+                }
             }
             System.out.println("");
         }
@@ -108,6 +246,15 @@ public class Tableau {
         return size;
     }
 
+    /**
+     * Retourne le générateur pseudo-aléatoire de la simulation.
+     * 
+     * @return Le générateur
+     */
+    public Alea getAlea() {
+        return alea;
+    }
+
     /**
      * Retourne la coordonnée X de la ruche.
      * 
@@ -127,14 +274,123 @@ public class Tableau {
     }
 
     /**
-     * Retourne le plateau complet (la grille de cases).
+     * Retourne la ruche placée sur le plateau.
+     * 
+     * @return La ruche
+     */
+    Ruche getRuche() {
+        return ruche;
+    }
+
+    /**
+     * Indique si les abeilles doivent afficher leurs messages sur la sortie standard.
+     * 
+     * @return true si les messages sont affichés
+     */
+    boolean isVerbeux() {
+        return verbeux;
+    }
+
+    /**
+     * Active ou désactive les messages des abeilles (désactivés en mode sans interface).
+     * 
+     * @param var true pour afficher les messages
+     */
+    void setVerbeux(boolean var) {
+        verbeux = var;
+    }
+
+    /**
+     * Retourne le rayon du voisinage dans lequel une employée cherche une meilleure source.
+     * 
+     * @return Le rayon (en cases)
+     */
+    int getRayon() {
+        return rayon;
+    }
+
+    /**
+     * Modifie le rayon du voisinage dans lequel une employée cherche une meilleure source.
+     * 
+     * @param var Le nouveau rayon (en cases, positif ou nul)
+     */
+    void setRayon(int var) {
+        rayon = var;
+    }
+
+    /**
+     * Modifie le pas de toutes les abeilles, c'est-à-dire la distance qu'elles parcourent à chaque tick.
+     * Les éclaireuses repèrent les fleurs de toutes les cases traversées (`Essaim.balaie`) :
+     * un grand pas accélère la simulation sans faire manquer de fleurs.
+     *
+     * @param var Le nouveau pas (en pixels, strictement positif)
+     */
+    void setPas(int var) {
+        java.util.Arrays.fill(ruche.getEssaim().v, var);
+    }
+
+    /**
+     * Indique si les observatrices choisissent leur source à la roulette (probabilité proportionnelle
+     * à la qualité) plutôt que par le choix glouton par défaut.
+     * 
+     * @return true pour le choix à la roulette
+     */
+    boolean isRoulette() {
+        return roulette;
+    }
+
+    /**
+     * Choisit la règle de choix des sources des observatrices.
      * 
-     * @return Le plateau sous forme de matrice de `Case`
+     * @param var true pour le choix à la roulette, false pour le choix glouton
      */
-    Case[][] getPlateau() {
+    void setRoulette(boolean var) {
+        roulette = var;
+    }
+
+    /**
+     * Retourne la case à une position du plateau.
+     * 
+     * @param mx Coordonnée x de la case (en matrice)
+     * @param my Coordonnée y de la case (en matrice)
+     * @return La ruche, une vue sur la source de la case, ou null si la case est vide
+     */
+    Case getCase(int mx, int my) {
+        if (mx == Xruche && my == Yruche) {
+            return ruche;
+        }
+        return plateau.estSource(mx, my) ? new Source(plateau, mx, my) : null;
+    }
+
+    /**
+     * Retourne la grille des sources du plateau, lue directement par les abeilles.
+     * 
+     * @return La grille
+     */
+    Grille getGrille() {
         return plateau;
     }
 
+    /**
+     * Retourne la quantité de pollen d'une case du plateau.
+     * 
+     * @param mx Coordonnée x de la case (en matrice)
+     * @param my Coordonnée y de la case (en matrice)
+     * @return La quantité de pollen (0 pour une case vide ou la ruche)
+     */
+    int getQtt(int mx, int my) {
+        return plateau.getQtt(mx, my);
+    }
+
+    /**
+     * Liste les sources de pollen du plateau (y compris celles dont le pollen a été retiré).
+     * 
+     * @return Les positions des sources (y * taille + x), dans l'ordre des lignes du plateau
+     */
+    int[] cellulesSources() {
+        return plateau.cellules();
+    }
+
     /**
      * Retourne la taille d'une case en pixels sur l'axe X.
      * 
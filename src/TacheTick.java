@@ -0,0 +1,58 @@
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Tâche fork/join qui fait avancer d'un tick une plage d'abeilles d'un même rôle.
+ * La plage est coupée en deux tant qu'elle dépasse `SEUIL` abeilles, chaque moitié étant traitée
+ * par un thread du `ForkJoinPool`.
+ *
+ * Le résultat est le nombre d'abeilles ayant réussi leur objectif pendant ce tick
+ * (nouvelles sources pour les éclaireuses, dépôts de pollen pour les employées, 0 pour les observatrices).
+ */
+class TacheTick extends RecursiveTask<Integer> {
+
+    private static final long serialVersionUID = 1L;
+
+    /** Nombre d'abeilles en dessous duquel la plage est traitée sans être découpée */
+    static final int SEUIL = 2048;
+
+    private final Essaim essaim;
+    private final Tableau tab;
+    private final byte role;
+    private final int debut, fin;
+
+    /**
+     * Constructeur de la tâche.
+     *
+     * @param essaim L'essaim contenant les abeilles.
+     * @param tab    Le plateau de simulation.
+     * @param role   Le rôle des abeilles de la plage (`Essaim.ECLAIREUSE`, `EMPLOYEE` ou `OBSERVATRICE`).
+     * @param debut  Le premier identifiant de la plage.
+     * @param fin    L'identifiant suivant le dernier de la plage.
+     */
+    TacheTick(Essaim essaim, Tableau tab, byte role, int debut, int fin) {
+        this.essaim = essaim;
+        this.tab = tab;
+        this.role = role;
+        this.debut = debut;
+        this.fin = fin;
+    }
+
+    @Override
+    protected Integer compute() {
+        if (fin - debut <= SEUIL) {
+            if (role == Essaim.ECLAIREUSE) {
+                return essaim.tickEclaireuses(debut, fin, tab);
+            } else if (role == Essaim.EMPLOYEE) {
+                return essaim.tickEmployees(debut, fin, tab);
+            }
+            essaim.tickObservatrices(debut, fin, tab);
+            return 0;
+        }
+
+        int milieu = (debut + fin) >>> 1;
+        TacheTick gauche = new TacheTick(essaim, tab, role, debut, milieu);
+        gauche.fork();
+        int droite = new TacheTick(essaim, tab, role, milieu, fin).compute();
+        return gauche.join() + droite;
+    }
+}